@@ -0,0 +1,80 @@
+package com.oci.mds.configuration.reader;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of loading a config file up to the JSON tree bound by Dropwizard, with the parsed file cache or without:
+ * through the rendered JSON text of {@link TypeSafeConfigProvider#open(String)}, or straight from the resolved config.
+ * The binding of the tree into the configuration class is the same for both paths, so it is left out.
+ * The uncached benchmarks clear the cache in the benchmark method itself, a clear of a map of one entry, rather than
+ * in a per-invocation setup whose timestamping would distort the cached figures.
+ * <p>
+ * Run from the project directory, so the config files are found:
+ * <pre>
+ * mvn -Pbenchmark clean package
+ * java -jar target/benchmarks.jar ConfigLoadingBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigLoadingBenchmark {
+
+    @Param({"config/sample.conf"})
+    private String path;
+
+    private TypeSafeConfigProvider provider;
+    private ObjectMapper mapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        provider = new TypeSafeConfigProvider(new TypeSafeFileReader());
+        mapper = Jackson.newObjectMapper();
+    }
+
+    @Benchmark
+    public JsonNode jsonText() throws IOException {
+        try (InputStream input = provider.open(path)) {
+            return mapper.readTree(input);
+        }
+    }
+
+    @Benchmark
+    public JsonNode jsonTree() {
+        return provider.readTree(path);
+    }
+
+    @Benchmark
+    public JsonNode jsonTextUncached() throws IOException {
+        TypeSafeFileReader.clearCache();
+        return jsonText();
+    }
+
+    @Benchmark
+    public JsonNode jsonTreeUncached() {
+        TypeSafeFileReader.clearCache();
+        return jsonTree();
+    }
+}
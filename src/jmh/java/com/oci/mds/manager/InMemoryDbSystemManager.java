@@ -0,0 +1,60 @@
+package com.oci.mds.manager;
+
+import com.oci.mds.configuration.ProjectConfiguration;
+
+import com.oracle.bmc.mysql.model.DbSystem;
+import com.oracle.bmc.mysql.model.DbSystem.LifecycleState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link DbSystemManager} answering GET and LIST from memory instead of the DbSystem client,
+ * so the benchmarks measure the manager overhead only.
+ */
+class InMemoryDbSystemManager extends DbSystemManager {
+
+    private final Map<String, DbSystem> dbSystems = new LinkedHashMap<>();
+
+    InMemoryDbSystemManager(ProjectConfiguration config, int count, LifecycleState state) {
+        super(config);
+        final Date now = new Date();
+        for (int i = 1; i <= count; i++) {
+            DbSystem dbSystem = DbSystem.builder()
+                .id(String.format("ocid1.mysqldbsystem.oc1.bench.%08d", i))
+                .displayName(String.format("OCI-MDS.Benchmark.%d", i))
+                .compartmentId(config.getCompartmentId())
+                .lifecycleState(state)
+                .timeCreated(now)
+                .timeUpdated(now)
+                .build();
+            dbSystems.put(dbSystem.getId(), dbSystem);
+        }
+    }
+
+    List<String> getIds() {
+        return new ArrayList<>(dbSystems.keySet());
+    }
+
+    Collection<DbSystem> getAll() {
+        return dbSystems.values();
+    }
+
+    @Override
+    DbSystem getResource(String resourceId) {
+        return dbSystems.get(resourceId);
+    }
+
+    @Override
+    Map<String, LifecycleState> listResourceStates(Collection<String> compartmentIds, Set<String> resourceIds) {
+        Map<String, LifecycleState> listed = new HashMap<>();
+        resourceIds.forEach(id -> listed.put(id, dbSystems.get(id).getLifecycleState()));
+        return listed;
+    }
+}
@@ -0,0 +1,145 @@
+package com.oci.mds.manager;
+
+import com.oci.mds.configuration.ProjectConfiguration;
+
+import com.oracle.bmc.mysql.model.CreateDbSystemDetails;
+import com.oracle.bmc.mysql.model.DbSystem;
+import com.oracle.bmc.mysql.model.DbSystem.LifecycleState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-cycle cost of the manager code that runs on every poll, by number of tracked resources.
+ * <p>
+ * Run with the allocation profiler to get the allocation rate per cycle:
+ * <pre>
+ * mvn -Pbenchmark clean package
+ * java -jar target/benchmarks.jar -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ManagerBenchmark {
+
+    private static final String COMPARTMENT_ID = "ocid1.compartment.oc1..benchmark";
+
+    @Param({"10", "1000", "10000"})
+    private int resourceCount;
+
+    private InMemoryDbSystemManager manager;
+    private List<String> ids;
+    private DbSystemDetailsSetup dbSystemDetailsSetup;
+    private LifecycleWait<DbSystem, LifecycleState> wait;
+    private ProgressReporter<DbSystem, LifecycleState> progressReporter;
+    private final List<Runnable> completions = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ProjectConfiguration config = new ProjectConfiguration();
+        config.setCompartmentId(COMPARTMENT_ID);
+
+        manager = new InMemoryDbSystemManager(config, resourceCount, LifecycleState.Creating);
+        ids = manager.getIds();
+        progressReporter = new ProgressReporter<>(manager, Duration.ofSeconds(config.getProgressSummaryIntervalInSeconds()));
+
+        dbSystemDetailsSetup = DbSystemDetailsSetup.hiddenBuilder()
+            .config(config)
+            .displayName("OCI-MDS.Benchmark")
+            .description("OCI-MDS.Benchmark")
+            .compartmentId(COMPARTMENT_ID)
+            .logicalAdName("BENCH:AD-1")
+            .subnetId("ocid1.subnet.oc1..benchmark")
+            .instanceShape("VM.Standard.E2.1")
+            .configurationId("ocid1.mysqlconfiguration.oc1..benchmark")
+            .dataStorageSize(50)
+            .build();
+    }
+
+    /**
+     * The target state is never reached and no resource is faulty, so the wait stays pending and every invocation
+     * is a full poll cycle on pending resources: a wait per iteration is enough, and keeps the setup out of the
+     * sub-microsecond measurements.
+     */
+    @Setup(Level.Iteration)
+    public void newWait() throws InterruptedException {
+        wait = new LifecycleWait<>(manager, ids, LifecycleState.Active, Duration.ofHours(1));
+        // Only the snapshots requested after the wait started are evaluated, Instant.now() ticks every millisecond on Java 8
+        TimeUnit.MILLISECONDS.sleep(2);
+        manager.refreshResources(ids).join();
+    }
+
+    /**
+     * One poll round of {@code waitForLifecycle}, as run by the poll loop: refresh (fan-out GETs or bulk listing),
+     * evaluation and progress report, which logs the state counts at most once per summary interval.
+     */
+    @Benchmark
+    public boolean pollCycle() {
+        manager.refreshResources(ids).join();
+        evaluateWait();
+        progressReporter.summary(Collections.singletonList(wait), Instant.now());
+        return wait.isDone();
+    }
+
+    @Benchmark
+    public Map<String, DbSystem> refreshResources() {
+        return manager.refreshResources(ids).join();
+    }
+
+    @Benchmark
+    public boolean evaluate() {
+        evaluateWait();
+        return wait.isDone();
+    }
+
+    /**
+     * Evaluates the wait and completes its futures right away, as the poll loop does once its monitor is released.
+     */
+    private void evaluateWait() {
+        wait.evaluate(completions);
+        completions.forEach(Runnable::run);
+        completions.clear();
+    }
+
+    @Benchmark
+    public List<String> idListWithFaultyStates() {
+        return manager.getIdListWithFaultyStates(manager.getAll());
+    }
+
+    @Benchmark
+    public String renderTrackedResources() {
+        return manager.render(ids);
+    }
+
+    @Benchmark
+    public String renderAllResources() {
+        return manager.toString();
+    }
+
+    @Benchmark
+    public List<CreateDbSystemDetails> createDbSystemDetailsList() {
+        return dbSystemDetailsSetup.createDbSystemDetailsList(resourceCount);
+    }
+}
@@ -3,9 +3,13 @@ package com.oci.mds;
 import com.oci.mds.configuration.ProjectConfiguration;
 import com.oci.mds.configuration.reader.TypeSafeFileReader;
 import com.oci.mds.configuration.reader.TypeSafeConfigProvider;
+import com.oci.mds.configuration.reader.TypeSafeConfigurationFactoryFactory;
 import com.oci.mds.sample.BackupSample;
 import com.oci.mds.sample.DbSystemSample;
+import com.oci.mds.sample.LoadTestSample;
 
+import com.oci.mds.standin.StandInServer;
+import com.oci.mds.util.MetricsReporters;
 import com.oci.mds.util.ShutDownHook;
 
 import io.dropwizard.Application;
@@ -15,6 +19,10 @@ import io.dropwizard.setup.Environment;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.concurrent.CountDownLatch;
+
+import static com.google.common.util.concurrent.Uninterruptibles.awaitUninterruptibly;
+
 @Slf4j
 public class Runner extends Application<ProjectConfiguration> {
 
@@ -22,18 +30,31 @@ public class Runner extends Application<ProjectConfiguration> {
     public void initialize(Bootstrap<ProjectConfiguration> bootstrap) {
         TypeSafeFileReader fileReader = new TypeSafeFileReader();
         bootstrap.setConfigurationSourceProvider(new TypeSafeConfigProvider(fileReader));
+        bootstrap.setConfigurationFactoryFactory(new TypeSafeConfigurationFactoryFactory<>());
     }
 
     @Override
     public void run(ProjectConfiguration config, Environment environment) {
         boolean exceptionCaught = false;
+        config.setMetricRegistry(environment.metrics());
+        MetricsReporters metricsReporters = new MetricsReporters(environment.metrics(), config.getMetricsReporters());
+        metricsReporters.start();
+
+        // Configure Shutdown Hook, which stops what was started once the cleanup is done
+        ShutDownHook shutDownHook = new ShutDownHook(config);
+        shutDownHook.closeAfterCleanup(metricsReporters::stop);
+        Runtime.getRuntime().addShutdownHook(shutDownHook);
         try {
             String sampleArg = System.getProperty("sampleOption", Option.DBSYSTEM.getName()).toUpperCase();
             Option option = Option.valueOf(sampleArg);
 
-            // Configure Shutdown Hook
-            ShutDownHook shutDownHook = new ShutDownHook(config);
-            Runtime.getRuntime().addShutdownHook(shutDownHook);
+            // Start the local MDS API stand-in
+            if (config.getStandIn().isEnabled() || option == Option.STANDIN) {
+                StandInServer standInServer = new StandInServer(config.getStandIn(), config.getMysqlInstanceComputeShape(), config.getLogicalADName());
+                standInServer.start();
+                shutDownHook.closeAfterCleanup(standInServer::stop);
+            }
+            shutDownHook.closeAfterCleanup(() -> config.getLifecyclePoller().close());
 
             switch (option) {
                 case DBSYSTEM:
@@ -42,14 +63,23 @@ public class Runner extends Application<ProjectConfiguration> {
                 case BACKUP:
                     new BackupSample(config).run();
                     break;
+                case LOADTEST:
+                    new LoadTestSample(config).run();
+                    break;
+                case STANDIN:
+                    // Serve until the process is interrupted
+                    awaitUninterruptibly(new CountDownLatch(1));
+                    break;
                 default:
                     log.warn("Invalid option");
             }
 
             // Remove Shutdown Hook since the execution was not interrupted before
             Runtime.getRuntime().removeShutdownHook(shutDownHook);
+            shutDownHook.closeWithoutCleanup();
 
         } catch (Exception e) {
+            // The Shutdown Hook cleans up on exit, then stops the stand-in and the metrics reporters
             exceptionCaught = true;
             log.error("Error running samples", e);
         }
@@ -64,7 +94,7 @@ public class Runner extends Application<ProjectConfiguration> {
 
     @Getter
     private enum Option {
-        DBSYSTEM("DBSYSTEM"), BACKUP("BACKUP");
+        DBSYSTEM("DBSYSTEM"), BACKUP("BACKUP"), LOADTEST("LOADTEST"), STANDIN("STANDIN");
 
         private String name;
 
@@ -0,0 +1,29 @@
+package com.oci.mds.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * HTTP settings shared by all the SDK clients, see {@link OciClientFactory}.
+ */
+@Getter
+@Setter
+@ToString
+public class HttpClientConfiguration {
+
+    private int connectionTimeoutInMillis = 10000;
+
+    private int readTimeoutInMillis = 60000;
+
+    /**
+     * Keeps the connections open between calls, so the TLS handshake is paid once per connection.
+     */
+    private boolean keepAlive = true;
+
+    /**
+     * Max idle connections kept open per route (host and port) for reuse, shared by the clients calling the same
+     * endpoint. It doesn't limit the connections in use: the calls beyond it close their connection after use.
+     */
+    private int maxIdleConnectionsPerRoute = 32;
+}
@@ -0,0 +1,44 @@
+package com.oci.mds.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Settings of the load test, see {@link com.oci.mds.sample.LoadTestSample}.
+ */
+@Getter
+@Setter
+@ToString
+public class LoadTestConfiguration {
+
+    /**
+     * Number of scenarios running at the same time.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Total number of scenarios to run, ignored when {@code durationInSeconds} is set.
+     */
+    private int iterations = 8;
+
+    /**
+     * Duration of the run; no new scenario is started after it. 0 runs {@code iterations} scenarios instead.
+     */
+    private long durationInSeconds = 0;
+
+    /**
+     * Scenarios run in turn by every worker: "DbSystem" (create, stop, start, delete)
+     * and "Backup" (create DbSystem, backup, delete both).
+     */
+    private List<String> scenarios = new ArrayList<>(Arrays.asList("DbSystem", "Backup"));
+
+    /**
+     * HDR histogram log written at the end of the run, empty to skip it.
+     */
+    private String histogramLogFile = "loadtest.hlog";
+}
@@ -0,0 +1,26 @@
+package com.oci.mds.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Reporter of the project metrics, see {@link com.oci.mds.util.MetricsReporters}.
+ */
+@Getter
+@Setter
+@ToString
+public class MetricsReporterConfiguration {
+
+    /**
+     * One of "console", "csv" or "jmx".
+     */
+    private String type = "console";
+
+    private long periodInSeconds = 60;
+
+    /**
+     * Output directory of the "csv" reporter.
+     */
+    private String directory = "metrics";
+}
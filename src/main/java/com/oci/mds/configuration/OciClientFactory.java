@@ -0,0 +1,81 @@
+package com.oci.mds.configuration;
+
+import com.oracle.bmc.ClientConfiguration;
+import com.oracle.bmc.auth.BasicAuthenticationDetailsProvider;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.util.function.BiFunction;
+
+/**
+ * Builds the SDK clients with the timeouts and connection pool of the {@code httpClient} config.
+ * <p>
+ * The clients use the JDK HTTP connector, whose keep-alive cache is shared by the whole JVM: all the clients calling
+ * the same endpoint share its connections, up to {@code http.maxConnections} idle connections per route. The JDK
+ * reads these system properties once, so they are set before the first client is built, unless set on the command line;
+ * a warning is logged if an HTTP connection of the JVM already made the JDK read them.
+ */
+@Slf4j
+public class OciClientFactory {
+
+    private static final String KEEP_ALIVE_PROPERTY = "http.keepAlive";
+    private static final String MAX_CONNECTIONS_PROPERTY = "http.maxConnections";
+    private static final String KEEP_ALIVE_CACHE_CLASS = "sun.net.www.http.KeepAliveCache";
+
+    private final BasicAuthenticationDetailsProvider provider;
+    private final ClientConfiguration clientConfiguration;
+
+    public OciClientFactory(HttpClientConfiguration configuration, BasicAuthenticationDetailsProvider provider) {
+        this.provider = provider;
+        this.clientConfiguration = ClientConfiguration.builder()
+            .connectionTimeoutMillis(configuration.getConnectionTimeoutInMillis())
+            .readTimeoutMillis(configuration.getReadTimeoutInMillis())
+            .build();
+
+        final int maxIdleConnections = keptAliveMaxConnections();
+        if (maxIdleConnections > 0 && (System.getProperty(KEEP_ALIVE_PROPERTY) == null || System.getProperty(MAX_CONNECTIONS_PROPERTY) == null)) {
+            log.warn("The JDK keep-alive cache was initialized before the SDK clients, keeping {} idle connection(s) per route: "
+                + "httpClient.keepAlive and httpClient.maxIdleConnectionsPerRoute are ignored, set {} and {} on the command line instead",
+                maxIdleConnections, KEEP_ALIVE_PROPERTY, MAX_CONNECTIONS_PROPERTY);
+        }
+        setDefaultProperty(KEEP_ALIVE_PROPERTY, String.valueOf(configuration.isKeepAlive()));
+        setDefaultProperty(MAX_CONNECTIONS_PROPERTY, String.valueOf(configuration.getMaxIdleConnectionsPerRoute()));
+        log.debug("SDK clients: {}", configuration);
+    }
+
+    /**
+     * @param constructor - client constructor, e.g. {@code DbSystemClient::new}
+     * @return a client using the shared HTTP settings
+     */
+    public <C> C create(BiFunction<BasicAuthenticationDetailsProvider, ClientConfiguration, C> constructor) {
+        return constructor.apply(provider, clientConfiguration);
+    }
+
+    public ClientConfiguration getClientConfiguration() {
+        return clientConfiguration;
+    }
+
+    /**
+     * @return the {@code http.maxConnections} value read by the JDK keep-alive cache, -1 if not read yet or unknown
+     * (the cache is JDK internal, it can't be inspected on every JVM)
+     */
+    private static int keptAliveMaxConnections() {
+        try {
+            final Field result = Class.forName(KEEP_ALIVE_CACHE_CLASS).getDeclaredField("result");
+            result.setAccessible(true);
+            return result.getInt(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Can't tell if the JDK keep-alive cache is initialized: {}", e.toString());
+            return -1;
+        }
+    }
+
+    private static void setDefaultProperty(String name, String value) {
+        if (System.getProperty(name) == null) {
+            System.setProperty(name, value);
+        } else {
+            log.debug("{} set on the command line: {}", name, System.getProperty(name));
+        }
+    }
+}
@@ -1,19 +1,27 @@
 package com.oci.mds.configuration;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.google.common.base.Strings;
+import com.google.common.base.Suppliers;
+import com.oracle.bmc.ClientConfiguration;
 import com.oracle.bmc.ConfigFileReader;
 import com.oracle.bmc.auth.BasicAuthenticationDetailsProvider;
 import com.oracle.bmc.identity.IdentityClient;
 import com.oracle.bmc.mysql.DbBackupsClient;
 import com.oracle.bmc.mysql.DbSystemClient;
 import com.oracle.bmc.mysql.MysqlaasClient;
+import com.oracle.bmc.mysql.WorkRequestsClient;
 import io.dropwizard.Configuration;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.FileInputStream;
 import java.util.Properties;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 @Slf4j
 @Getter
@@ -25,6 +33,7 @@ import java.util.Properties;
     "mysqlaasClient",
     "dbSystemClient",
     "dbBackupsClient",
+    "workRequestsClient",
     "analyticsClient",
     "availabilityDomain",
     "region",
@@ -49,10 +58,30 @@ public class OciConfiguration extends Configuration {
     protected ConfigFileReader.ConfigFile configWithProfile = null;
     protected BasicAuthenticationDetailsProvider provider = null;
 
-    protected IdentityClient identityClient;
-    protected MysqlaasClient mysqlaasClient;
-    protected DbSystemClient dbSystemClient;
-    protected DbBackupsClient dbBackupsClient;
+    protected HttpClientConfiguration httpClient = new HttpClientConfiguration();
+
+    /*
+     * The clients are built on first use, once the configuration is bound, and only if the run needs them.
+     * Each one is built at most once, without blocking the others, so they can be built in parallel.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Supplier<OciClientFactory> clientFactory = Suppliers.memoize(() -> new OciClientFactory(httpClient, provider));
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Supplier<IdentityClient> identityClient = Suppliers.memoize(() -> createClient(IdentityClient::new, IdentityClient::setEndpoint));
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Supplier<MysqlaasClient> mysqlaasClient = Suppliers.memoize(() -> createClient(MysqlaasClient::new, MysqlaasClient::setEndpoint));
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Supplier<DbSystemClient> dbSystemClient = Suppliers.memoize(() -> createClient(DbSystemClient::new, DbSystemClient::setEndpoint));
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Supplier<DbBackupsClient> dbBackupsClient = Suppliers.memoize(() -> createClient(DbBackupsClient::new, DbBackupsClient::setEndpoint));
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Supplier<WorkRequestsClient> workRequestsClient = Suppliers.memoize(() -> createClient(WorkRequestsClient::new, WorkRequestsClient::setEndpoint));
 
     OciConfiguration() {
         try {
@@ -76,13 +105,45 @@ public class OciConfiguration extends Configuration {
 
             clientTenancyId = configWithProfile.get("tenancy");
 
-            dbBackupsClient = new DbBackupsClient(provider);
-            dbSystemClient = new DbSystemClient(provider);
-            identityClient = new IdentityClient(provider);
-            mysqlaasClient = new MysqlaasClient(provider);
-
         } catch (Exception ex) {
             log.error(ex.getMessage());
         }
     }
+
+    public IdentityClient getIdentityClient() {
+        return identityClient.get();
+    }
+
+    public MysqlaasClient getMysqlaasClient() {
+        return mysqlaasClient.get();
+    }
+
+    public DbSystemClient getDbSystemClient() {
+        return dbSystemClient.get();
+    }
+
+    public DbBackupsClient getDbBackupsClient() {
+        return dbBackupsClient.get();
+    }
+
+    public WorkRequestsClient getWorkRequestsClient() {
+        return workRequestsClient.get();
+    }
+
+    /**
+     * Builds a client with the {@code httpClient} settings, pointing to {@code mysqlClientEndpoint} if set.
+     * @return the client, null if no credentials were loaded
+     */
+    private <C> C createClient(BiFunction<BasicAuthenticationDetailsProvider, ClientConfiguration, C> constructor,
+                               BiConsumer<C, String> endpointSetter) {
+        if (provider == null) {
+            log.error("No credentials loaded from {}, the SDK clients can't be created", ociConfigPath);
+            return null;
+        }
+        final C client = clientFactory.get().create(constructor);
+        if (!Strings.isNullOrEmpty(mysqlClientEndpoint)) {
+            endpointSetter.accept(client, mysqlClientEndpoint);
+        }
+        return client;
+    }
 }
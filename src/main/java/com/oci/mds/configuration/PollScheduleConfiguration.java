@@ -0,0 +1,22 @@
+package com.oci.mds.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Poll schedule for a lifecycle transition, see {@link ProjectConfiguration#getPollSchedules()}.
+ */
+@Getter
+@Setter
+@ToString
+public class PollScheduleConfiguration {
+
+    private long initialDelayInMillis = 2000;
+
+    private long maxDelayInMillis = 30000;
+
+    private double multiplier = 1.5;
+
+    private double jitter = 0.2;
+}
@@ -1,9 +1,30 @@
 package com.oci.mds.configuration;
 
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.oci.mds.manager.LifecycleEvents;
+import com.oci.mds.manager.LifecyclePoller;
+import com.oci.mds.manager.PollSchedules;
+import com.oci.mds.manager.WaitStrategy;
+import com.oci.mds.manager.WorkRequestTracker;
+import com.oci.mds.util.ApiInvoker;
+import com.oci.mds.util.ConfigurationCache;
+import com.oci.mds.util.SnapshotCache;
+
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Getter
 @Setter
 @ToString
@@ -21,6 +42,10 @@ public class ProjectConfiguration extends OciConfiguration {
 
     private long createDbSystemTimeoutInSeconds;
 
+    private int createDbSystemParallelism = 1;
+
+    private long createDbSystemRequestTimeoutInSeconds = 60;
+
     private long updatingDbSystemTimeoutInSeconds;
 
     private long deleteDbSystemTimeoutInSeconds;
@@ -28,4 +53,202 @@ public class ProjectConfiguration extends OciConfiguration {
     private long createBackupTimeoutInSeconds;
 
     private long deleteBackupTimeoutInSeconds;
+
+    private int backupParallelism = 8;
+
+    private int backupRetries = 2;
+
+    private int restoreDbSystemCount = 1;
+
+    private long shutdownCleanupTimeoutInSeconds = 120;
+
+    private int shutdownCleanupParallelism = 8;
+
+    private int pollerParallelism = 16;
+
+    private int bulkRefreshThreshold = 20;
+
+    private long progressSummaryIntervalInSeconds = 60;
+
+    private boolean trackWorkRequests = true;
+
+    private long workRequestPollIntervalInMillis = 5000;
+
+    private int asyncParallelism = 32;
+
+    private WaitStrategy dbSystemWaitStrategy = WaitStrategy.POLLER;
+
+    private WaitStrategy backupWaitStrategy = WaitStrategy.POLLER;
+
+    private int sdkWaiterParallelism = 32;
+
+    private long sdkWaiterMaxDelayInSeconds = 30;
+
+    /**
+     * Poll schedules keyed by "resourceType:sourceState:targetState" (e.g. "DbSystem:Creating:Active"),
+     * "resourceType:*:targetState" or "default".
+     */
+    private Map<String, PollScheduleConfiguration> pollSchedules = new HashMap<>();
+
+    private long configurationCacheTtlInSeconds = 600;
+
+    private long snapshotMaxAgeInMillis = 2000;
+
+    /**
+     * Client-side rate limits in requests per second, keyed by "client:operation" (e.g. "DbSystem:GetDbSystem"),
+     * "client" (e.g. "DbSystem") or "default".
+     */
+    private Map<String, Double> rateLimits = new HashMap<>();
+
+    private int throttleRetries = 5;
+
+    private StandInConfiguration standIn = new StandInConfiguration();
+
+    private LoadTestConfiguration loadTest = new LoadTestConfiguration();
+
+    private List<MetricsReporterConfiguration> metricsReporters = new ArrayList<>();
+
+    /**
+     * Registry of the SDK call and lifecycle metrics, the Dropwizard environment one when run by the Runner.
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    private MetricRegistry metricRegistry;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private LifecyclePoller lifecyclePoller;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ConfigurationCache configurationCache;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ApiInvoker apiInvoker;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private SnapshotCache snapshotCache;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ExecutorService asyncExecutor;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ExecutorService sdkWaiterExecutor;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private LifecycleEvents lifecycleEvents;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private WorkRequestTracker workRequestTracker;
+
+    public synchronized LifecyclePoller getLifecyclePoller() {
+        if (lifecyclePoller == null) {
+            lifecyclePoller = new LifecyclePoller(pollerParallelism, new PollSchedules(pollSchedules),
+                Duration.ofSeconds(progressSummaryIntervalInSeconds));
+        }
+        return lifecyclePoller;
+    }
+
+    public synchronized ConfigurationCache getConfigurationCache() {
+        if (configurationCache == null) {
+            configurationCache = new ConfigurationCache(Duration.ofSeconds(configurationCacheTtlInSeconds));
+        }
+        return configurationCache;
+    }
+
+    public synchronized MetricRegistry getMetricRegistry() {
+        if (metricRegistry == null) {
+            metricRegistry = new MetricRegistry();
+        }
+        return metricRegistry;
+    }
+
+    public synchronized SnapshotCache getSnapshotCache() {
+        if (snapshotCache == null) {
+            snapshotCache = new SnapshotCache(Duration.ofMillis(snapshotMaxAgeInMillis), getMetricRegistry());
+        }
+        return snapshotCache;
+    }
+
+    /**
+     * Executor of the requests sent by the managers' async methods and of their completion callbacks.
+     */
+    public synchronized ExecutorService getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            asyncExecutor = Executors.newFixedThreadPool(asyncParallelism,
+                new ThreadFactoryBuilder().setNameFormat("manager-async-%d").setDaemon(true).build());
+        }
+        return asyncExecutor;
+    }
+
+    /**
+     * Replaces the executor of the managers' async methods, must be called before the managers are created.
+     * @param asyncExecutor - executor
+     */
+    public synchronized void setAsyncExecutor(ExecutorService asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * Executor of the SDK waiters of the managers using {@link WaitStrategy#SDK_WAITER}: each waiter blocks a thread
+     * until its resource reaches a state, the waits beyond the pool size are queued.
+     */
+    public synchronized ExecutorService getSdkWaiterExecutor() {
+        if (sdkWaiterExecutor == null) {
+            sdkWaiterExecutor = Executors.newFixedThreadPool(sdkWaiterParallelism,
+                new ThreadFactoryBuilder().setNameFormat("sdk-waiter-%d").setDaemon(true).build());
+        }
+        return sdkWaiterExecutor;
+    }
+
+    /**
+     * Lifecycle transitions observed by the polling of all the managers, delivered on the async executor.
+     */
+    public synchronized LifecycleEvents getLifecycleEvents() {
+        if (lifecycleEvents == null) {
+            lifecycleEvents = new LifecycleEvents(getAsyncExecutor());
+        }
+        return lifecycleEvents;
+    }
+
+    public synchronized WorkRequestTracker getWorkRequestTracker() {
+        if (workRequestTracker == null) {
+            workRequestTracker = new WorkRequestTracker(getWorkRequestsClient(), getApiInvoker(), getLifecyclePoller(),
+                Duration.ofMillis(workRequestPollIntervalInMillis));
+        }
+        return workRequestTracker;
+    }
+
+    public synchronized ApiInvoker getApiInvoker() {
+        if (apiInvoker == null) {
+            apiInvoker = new ApiInvoker(getMetricRegistry(), rateLimits, throttleRetries);
+            apiInvoker.registerInFlightPerKeptAlive("mysql", httpClient.getMaxIdleConnectionsPerRoute(),
+                "DbSystem", "DbBackups", "Mysqlaas", "WorkRequests");
+            apiInvoker.registerInFlightPerKeptAlive("identity", httpClient.getMaxIdleConnectionsPerRoute(), "Identity");
+        }
+        return apiInvoker;
+    }
 }
@@ -0,0 +1,57 @@
+package com.oci.mds.configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the local MDS API stand-in, see {@link com.oci.mds.standin.StandInServer}.
+ */
+@Getter
+@Setter
+@ToString
+public class StandInConfiguration {
+
+    private boolean enabled = false;
+
+    private int port = 19000;
+
+    private int threads = 16;
+
+    private DelayRange dbSystemCreateDelay = new DelayRange(20, 40);
+
+    private DelayRange dbSystemUpdateDelay = new DelayRange(5, 15);
+
+    private DelayRange dbSystemDeleteDelay = new DelayRange(5, 15);
+
+    private DelayRange backupCreateDelay = new DelayRange(5, 15);
+
+    private DelayRange backupDeleteDelay = new DelayRange(1, 3);
+
+    /**
+     * Probability of a create ending in the Failed state instead of Active.
+     */
+    private double failedStateRate = 0;
+
+    /**
+     * Probability of answering a request with an error, by HTTP status (e.g. 429, 500).
+     */
+    private Map<Integer, Double> errorRates = new HashMap<>();
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DelayRange {
+
+        private double minInSeconds;
+
+        private double maxInSeconds;
+    }
+}
@@ -1,5 +1,6 @@
 package com.oci.mds.configuration.reader;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.dropwizard.configuration.ConfigurationSourceProvider;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -33,4 +34,16 @@ public class TypeSafeConfigProvider implements ConfigurationSourceProvider {
         log.debug("Running with configuration:\n{}", json);
         return new ByteArrayInputStream(json.getBytes("UTF-8"));
     }
+
+    /**
+     * Reads the config file indicated by the given source and returns it as a JSON tree, without the JSON rendering
+     * and parsing of {@link #open(String)}. Used by the {@link TypeSafeConfigurationFactory}.
+     */
+    public JsonNode readTree(@NonNull String source) {
+        JsonNode tree = reader.readTree(source);
+        if (log.isDebugEnabled()) {
+            log.debug("Running with configuration:\n{}", tree.toString());
+        }
+        return tree;
+    }
 }
@@ -0,0 +1,31 @@
+package com.oci.mds.configuration.reader;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.configuration.ConfigurationException;
+import io.dropwizard.configuration.ConfigurationSourceProvider;
+import io.dropwizard.configuration.YamlConfigurationFactory;
+
+import javax.validation.Validator;
+import java.io.IOException;
+
+/**
+ * A configuration factory binding the config read by a {@linkplain TypeSafeConfigProvider} straight from its JSON
+ * tree, instead of reading the JSON text returned by {@link TypeSafeConfigProvider#open(String)}.
+ * The other providers are read as usual. The {@code dw.} system property overrides and the validation still apply.
+ */
+public class TypeSafeConfigurationFactory<T> extends YamlConfigurationFactory<T> {
+
+    public TypeSafeConfigurationFactory(Class<T> klass, Validator validator, ObjectMapper objectMapper, String propertyPrefix) {
+        super(klass, validator, objectMapper, propertyPrefix);
+    }
+
+    @Override
+    public T build(ConfigurationSourceProvider provider, String path) throws IOException, ConfigurationException {
+        if (!(provider instanceof TypeSafeConfigProvider)) {
+            return super.build(provider, path);
+        }
+        JsonNode node = ((TypeSafeConfigProvider) provider).readTree(path);
+        return build(node, path);
+    }
+}
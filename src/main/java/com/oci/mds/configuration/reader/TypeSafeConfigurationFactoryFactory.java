@@ -0,0 +1,19 @@
+package com.oci.mds.configuration.reader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.configuration.ConfigurationFactory;
+import io.dropwizard.configuration.ConfigurationFactoryFactory;
+
+import javax.validation.Validator;
+
+/**
+ * Creates {@linkplain TypeSafeConfigurationFactory TypeSafe configuration factories}, to register with
+ * {@code Bootstrap.setConfigurationFactoryFactory}.
+ */
+public class TypeSafeConfigurationFactoryFactory<T> implements ConfigurationFactoryFactory<T> {
+
+    @Override
+    public ConfigurationFactory<T> create(Class<T> klass, Validator validator, ObjectMapper objectMapper, String propertyPrefix) {
+        return new TypeSafeConfigurationFactory<>(klass, validator, objectMapper, propertyPrefix);
+    }
+}
@@ -3,10 +3,24 @@ package com.oci.mds.configuration.reader;
 import com.google.common.base.Preconditions;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigValue;
+
 import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Reads a TypeSafe config file. The parsed files are cached by absolute path for the life of the JVM, and parsed
+ * again once the file or one of the files it includes is modified, so loading the same file again is near-free.
+ */
 public class TypeSafeFileReader extends TypeSafeReader<String> {
 
+    private static final ConcurrentMap<String, ParsedFile> PARSED_FILES = new ConcurrentHashMap<>();
+
     public TypeSafeFileReader(String rootKey) {
         super(rootKey);
     }
@@ -14,8 +28,67 @@ public class TypeSafeFileReader extends TypeSafeReader<String> {
     protected Config getConfig(String path) {
         File file = new File(path);
         Preconditions.checkArgument(file.isFile(), "path %s does not exist or is not a file", new Object[]{path});
-        return ConfigFactory.parseFile(file);
+
+        final String key = file.getAbsolutePath();
+        final ParsedFile cached = PARSED_FILES.get(key);
+        if (cached != null && cached.isUpToDate()) {
+            return cached.config;
+        }
+        final Config config = ConfigFactory.parseFile(file);
+        PARSED_FILES.put(key, new ParsedFile(file, config));
+        return config;
     }
 
     public TypeSafeFileReader() { }
+
+    /**
+     * Forgets the parsed files, e.g. to measure the parsing.
+     */
+    public static void clearCache() {
+        PARSED_FILES.clear();
+    }
+
+    /**
+     * A parsed file, with the modification time and length of the files it was parsed from.
+     * A parsed config is immutable, so it is shared by all the readers.
+     */
+    private static final class ParsedFile {
+
+        private final Config config;
+        private final Map<File, Long> lastModified = new HashMap<>();
+        private final Map<File, Long> lengths = new HashMap<>();
+
+        private ParsedFile(File file, Config config) {
+            this.config = config;
+            track(file);
+            trackOrigins(config.root());
+        }
+
+        private boolean isUpToDate() {
+            return lastModified.keySet().stream()
+                .allMatch(file -> file.lastModified() == lastModified.get(file) && file.length() == lengths.get(file));
+        }
+
+        /**
+         * Tracks the included files, found from the origins of the values.
+         */
+        private void trackOrigins(ConfigValue value) {
+            final String filename = value.origin().filename();
+            if (filename != null) {
+                track(new File(filename));
+            }
+            if (value instanceof ConfigObject) {
+                ((ConfigObject) value).values().forEach(this::trackOrigins);
+            } else if (value instanceof ConfigList) {
+                ((ConfigList) value).forEach(this::trackOrigins);
+            }
+        }
+
+        private void track(File file) {
+            if (!lastModified.containsKey(file)) {
+                lastModified.put(file, file.lastModified());
+                lengths.put(file, file.length());
+            }
+        }
+    }
 }
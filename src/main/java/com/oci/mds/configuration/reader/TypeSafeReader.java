@@ -1,15 +1,27 @@
 package com.oci.mds.configuration.reader;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigObject;
 import com.typesafe.config.ConfigRenderOptions;
 import com.typesafe.config.ConfigResolveOptions;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.impl.ConfigImpl;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
 
 public abstract class TypeSafeReader<T> {
     private static final String DEFAULT_ROOT_KEY = "config";
     private final String rootKey;
     private static final ConfigResolveOptions ALLOW_UNRESOLVED = ConfigResolveOptions.defaults().setAllowUnresolved(true);
     private static final ConfigResolveOptions NO_ENV_VARS = ConfigResolveOptions.defaults().setUseSystemEnvironment(false);
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
 
     TypeSafeReader() {
         this.rootKey = DEFAULT_ROOT_KEY;
@@ -23,6 +35,13 @@ public abstract class TypeSafeReader<T> {
         return this.toJson(this.getResolvedConfig(source));
     }
 
+    /**
+     * Reads the source as a JSON tree, built from the resolved config without rendering and parsing it again.
+     */
+    JsonNode readTree(T source) {
+        return toJsonNode(this.getResolvedConfig(source).root());
+    }
+
     private Config getResolvedConfig(T source) {
         Config config = this.getConfig(source);
         return this.applySystemPropertyOverrides(config);
@@ -34,11 +53,53 @@ public abstract class TypeSafeReader<T> {
         return config.root().render(ConfigRenderOptions.concise().setFormatted(true).setJson(true));
     }
 
+    /**
+     * Same as {@code ConfigFactory.load}, including the {@code config.override_with_env_vars} overrides of
+     * {@link ConfigFactory#defaultOverrides()}: only the cached system properties are read again on every call,
+     * instead of invalidating all the caches of ConfigFactory, which reloads the reference config from the classpath.
+     */
     private Config applySystemPropertyOverrides(Config config) {
-        ConfigFactory.invalidateCaches();
+        ConfigImpl.reloadSystemPropertiesConfig();
         Config rooted = ConfigFactory.empty().withValue(this.rootKey, config.root());
-        Config rootedWithOverrides = ConfigFactory.load(rooted, ALLOW_UNRESOLVED);
+        Config rootedWithOverrides = ConfigFactory.defaultOverrides()
+            .withFallback(rooted)
+            .withFallback(ConfigFactory.defaultReference())
+            .resolve(ALLOW_UNRESOLVED);
 
         return rootedWithOverrides.getConfig(this.rootKey).resolve(NO_ENV_VARS);
     }
+
+    private static JsonNode toJsonNode(ConfigValue value) {
+        switch (value.valueType()) {
+            case OBJECT:
+                ObjectNode object = NODES.objectNode();
+                ((ConfigObject) value).forEach((key, child) -> object.set(key, toJsonNode(child)));
+                return object;
+            case LIST:
+                ArrayNode array = NODES.arrayNode();
+                ((ConfigList) value).forEach(child -> array.add(toJsonNode(child)));
+                return array;
+            case NUMBER:
+                return toNumberNode((Number) value.unwrapped());
+            case BOOLEAN:
+                return NODES.booleanNode((Boolean) value.unwrapped());
+            case NULL:
+                return NODES.nullNode();
+            default:
+                return NODES.textNode((String) value.unwrapped());
+        }
+    }
+
+    private static JsonNode toNumberNode(Number number) {
+        if (number instanceof Integer) {
+            return NODES.numberNode(number.intValue());
+        } else if (number instanceof Long) {
+            return NODES.numberNode(number.longValue());
+        } else if (number instanceof BigInteger) {
+            return NODES.numberNode((BigInteger) number);
+        } else if (number instanceof BigDecimal) {
+            return NODES.numberNode((BigDecimal) number);
+        }
+        return NODES.numberNode(number.doubleValue());
+    }
 }
@@ -1,47 +1,88 @@
 package com.oci.mds.manager;
 
+import com.codahale.metrics.MetricRegistry;
 import com.oci.mds.configuration.ProjectConfiguration;
 import com.oci.mds.exception.WaitForStateException;
+import com.oci.mds.util.ApiInvoker;
+import com.oci.mds.util.FutureUtils;
 import com.oracle.bmc.model.BmcException;
+import com.oracle.bmc.waiter.MaxTimeTerminationStrategy;
+import com.oracle.bmc.waiter.TerminationStrategy;
+import com.oracle.bmc.waiter.WaitContext;
+import com.oracle.bmc.waiter.Waiter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
-import static java.util.concurrent.TimeUnit.SECONDS;
-
 @Slf4j
 public abstract class AbstractManager<T, S> {
 
     public static final Integer DEFAULT_PORT = 3306;
     public static final Integer DEFAULT_XPORT = 33060;
 
-    private static final long SLEEP_TIME = 10;
-    private static final int EXCEPTION_LIMIT = 5;
-
-    private static final String TIMEOUT_MSG = "Timed-out waiting for state %s, ID(s) %s";
-    private static final String FAILED_MSG = "Faulty state %s found while waiting for state %s, ID(s) %s";
-    private static final String WAIT_MESSAGE = "Waiting to become [{}] ... executed time {} seconds (timeout: {}s)\n{}";
     private static final String TO_STRING_FORMAT = "| %s [%s]: %s - '%s' %n";
+    private static final String WORK_REQUEST_FAILED_MSG = "Work request %s %s for %s: %s";
+    private static final String MAX_WAIT_EXCEEDED = "MaximumWaitTimeExceeded";
 
     protected ProjectConfiguration config;
 
-    private Collection<T> resources;
+    private final LifecyclePoller lifecyclePoller;
+
+    private final Executor asyncExecutor;
+
+    private final LifecycleEvents lifecycleEvents;
+
+    private final ExecutorService sdkWaiterExecutor;
+
+    private final ResourceRegistry<T, S> registry = new ResourceRegistry<>();
+
+    private volatile WaitStrategy waitStrategy = WaitStrategy.POLLER;
 
     AbstractManager(ProjectConfiguration config) {
         this.config = config;
+        this.lifecyclePoller = config.getLifecyclePoller();
+        this.asyncExecutor = config.getAsyncExecutor();
+        this.lifecycleEvents = config.getLifecycleEvents();
+        this.sdkWaiterExecutor = config.getSdkWaiterExecutor();
     }
 
+    abstract String getResourceType();
+
     abstract String getResourceId(T resource);
 
+    /**
+     * Gets a resource from a request sent after this call starts, never from an older request still in flight:
+     * the snapshot is observed as requested at the start of the call.
+     */
     abstract T getResource(String resourceId);
 
+    /**
+     * Lists the compartments and returns the lifecycle states of the resources found among the given ids.
+     * Only the states are taken from the list summaries: the summaries lack most of the resource fields.
+     */
+    abstract Map<String, S> listResourceStates(Collection<String> compartmentIds, Set<String> resourceIds);
+
+    abstract String getResourceCompartmentId(T resource);
+
     abstract S getResourceLifeCycleState(T resource);
 
     abstract String getResourceDisplayName(T resource);
@@ -50,28 +91,191 @@ public abstract class AbstractManager<T, S> {
 
     abstract Collection<S> getFaultyStates();
 
-    private void updateResourcesList(List<String> resourceIds) {
-        resources = resourceIds.stream()
-            .map(this::getResource)
-            .collect(Collectors.toList());
+    /**
+     * Blocks on the SDK waiter of a resource until it reaches one of the given states.
+     * @param resourceId - resource id
+     * @param states - states ending the wait
+     * @param terminationStrategy - ends the wait at its max time or once cancelled
+     * @return the resource, null if it no longer exists while waiting for its deletion
+     */
+    abstract T waitWithSdkWaiter(String resourceId, Collection<S> states, TerminationStrategy terminationStrategy);
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
     }
 
-    private List<String> getIdListWithFaultyStates() {
-        return resources.stream()
-            .filter(resource -> getFaultyStates().contains(getResourceLifeCycleState(resource)))
-            .map(this::getResourceId)
-            .collect(Collectors.toList());
+    /**
+     * Selects how the waits on a target state started from now on are carried out, e.g. to compare the API calls
+     * and the detection latency of both strategies on the same batch.
+     * @param waitStrategy - wait strategy
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Refreshes the given resources and keeps them as the last known state.
+     * Above the bulk refresh threshold the compartments are listed instead, which costs one call per page
+     * instead of one per resource: a resource listed in its last known state keeps its last snapshot, while
+     * the ones listed in another state or missing from the listing are fetched one by one, so only full
+     * resources are ever kept.
+     * @param resourceIds - resource ids
+     * @return the refreshed resources by id
+     */
+    CompletableFuture<Map<String, T>> refreshResources(Collection<String> resourceIds) {
+        final int bulkRefreshThreshold = config.getBulkRefreshThreshold();
+        if (bulkRefreshThreshold <= 0 || resourceIds.size() <= bulkRefreshThreshold) {
+            return fetchResources(resourceIds);
+        }
+
+        final Instant requestedAt = Instant.now();
+        final Set<String> idSet = new LinkedHashSet<>(resourceIds);
+        final Set<String> compartmentIds = new LinkedHashSet<>();
+        if (config.getCompartmentId() != null) {
+            compartmentIds.add(config.getCompartmentId());
+        }
+        idSet.stream()
+            .map(registry::getResource)
+            .filter(Objects::nonNull)
+            .map(this::getResourceCompartmentId)
+            .filter(Objects::nonNull)
+            .forEach(compartmentIds::add);
+
+        return CompletableFuture.supplyAsync(() -> listResourceStates(compartmentIds, idSet), lifecyclePoller.getExecutor())
+            .thenCompose(listedStates -> {
+                final Map<String, T> unchanged = new LinkedHashMap<>();
+                listedStates.forEach((id, state) -> {
+                    T resource = registry.confirm(id, state, requestedAt);
+                    if (resource != null) {
+                        unchanged.put(id, resource);
+                    }
+                });
+                List<String> fetchedIds = idSet.stream()
+                    .filter(id -> !unchanged.containsKey(id))
+                    .collect(Collectors.toList());
+                if (!fetchedIds.isEmpty()) {
+                    log.debug("{} resource(s) changed or not found in the listing, fetching them by id", fetchedIds.size());
+                }
+                return fetchResources(fetchedIds).thenApply(fetched -> {
+                    Map<String, T> refreshed = new LinkedHashMap<>(unchanged);
+                    refreshed.putAll(fetched);
+                    return refreshed;
+                });
+            });
+    }
+
+    private CompletableFuture<Map<String, T>> fetchResources(Collection<String> resourceIds) {
+        final Instant requestedAt = Instant.now();
+        final Map<String, CompletableFuture<T>> futures = lifecyclePoller.fetchAll(resourceIds, this::getResource);
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> {
+                Map<String, T> refreshed = new LinkedHashMap<>();
+                futures.forEach((id, future) -> refreshed.put(id, future.join()));
+                refreshed.forEach((id, resource) -> observe(id, resource, requestedAt));
+                return refreshed;
+            });
+    }
+
+    /**
+     * Records in the "mds.lifecycle.{type}.{state}.timeToStateInMillis" histogram
+     * how long a resource took to reach a target state since the wait started.
+     * Only the waits on a target state are recorded, not the ones on a condition such as "not Updating".
+     */
+    void recordTimeToState(S targetState, Duration elapsed) {
+        config.getMetricRegistry()
+            .histogram(MetricRegistry.name(ApiInvoker.METRICS_PREFIX, "lifecycle", getResourceType(), String.valueOf(targetState), "timeToStateInMillis"))
+            .update(elapsed.toMillis());
+    }
+
+    private void observe(String resourceId, T resource, Instant requestedAt) {
+        if (resource == null) {
+            return;
+        }
+        final S state = getResourceLifeCycleState(resource);
+        final S previousState = registry.observe(resourceId, resource, state, requestedAt);
+        if (!Objects.equals(previousState, state)) {
+            lifecycleEvents.publish(new LifecycleEvent<>(getResourceType(), resourceId, previousState, state, Instant.now()));
+        }
+    }
+
+    /**
+     * Listens to the transitions of the resources of this type observed by the polling, e.g. to back up
+     * each DbSystem as soon as it is Active without waiting for the others.
+     * @param newStates - states of interest, empty for all the transitions
+     * @param listener - listener, called on the async executor
+     * @return the subscription, to cancel it
+     */
+    public LifecycleEvents.Subscription subscribe(Collection<S> newStates, LifecycleListener<S> listener) {
+        return lifecycleEvents.subscribe(getResourceType(), newStates, listener);
+    }
+
+    public LifecycleEvents.Subscription subscribe(LifecycleListener<S> listener) {
+        return subscribe(Collections.emptySet(), listener);
+    }
+
+    T getKnownResource(String resourceId) {
+        return registry.getResource(resourceId);
+    }
+
+    /**
+     * @param resourceId - resource id
+     * @param time - e.g. the start of a wait
+     * @return the last known snapshot of the resource if it was requested after the given time, null otherwise
+     */
+    T getKnownResourceRequestedAfter(String resourceId, Instant time) {
+        return registry.get(resourceId)
+            .filter(entry -> entry.getObservedAt() != null && entry.getObservedAt().isAfter(time))
+            .map(ResourceRegistry.Entry::getResource)
+            .orElse(null);
     }
 
-    private Collection<String> geIdListNotInTargetState(S state) {
+    /**
+     * Registers a resource created by this manager.
+     * @param resourceId - resource id
+     */
+    void register(String resourceId) {
+        registry.register(resourceId);
+    }
+
+    void register(Collection<String> resourceIds) {
+        registry.register(resourceIds);
+    }
+
+    /**
+     * @return the ids of the resources created by this manager, in creation order
+     */
+    List<String> getRegisteredIds() {
+        return registry.getRegisteredIds();
+    }
+
+    /**
+     * @param states - lifecycle states
+     * @return the ids of the resources created by this manager not last seen in any of the given states
+     */
+    public List<String> getRegisteredIdsNotIn(Collection<S> states) {
+        return registry.getRegisteredIdsNotInStates(states);
+    }
+
+    List<String> getIdListWithFaultyStates(Collection<T> resources) {
         return resources.stream()
-            .filter(resource -> !getResourceLifeCycleState(resource).equals(state))
+            .filter(resource -> getFaultyStates().contains(getResourceLifeCycleState(resource)))
             .map(this::getResourceId)
             .collect(Collectors.toList());
     }
 
     @Override
     public String toString() {
+        return renderResources(registry.getResources());
+    }
+
+    String render(List<String> resourceIds) {
+        return renderResources(resourceIds.stream()
+            .map(registry::getResource)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList()));
+    }
+
+    private String renderResources(Collection<T> resources) {
         return resources.stream()
             .map(resource -> printLine(getResourceClass(resource), getResourceLifeCycleState(resource), getResourceId(resource), getResourceDisplayName(resource)))
             .collect(Collectors.joining());
@@ -81,6 +285,37 @@ public abstract class AbstractManager<T, S> {
         return  String.format(TO_STRING_FORMAT, name.getSimpleName(), state, resourceId, displayName);
     }
 
+    /**
+     * This method starts tracking the resources on the shared {@link LifecyclePoller} without blocking.
+     * @param resourceIds  - resource ids
+     * @param targetState - resource target state
+     * @param timeoutInSeconds - timeout in seconds
+     * @return a future per resource id, completed when the resource reaches the target state or failed with
+     * {@link WaitForStateException} on a faulty state or timeout
+     */
+    public Map<String, CompletableFuture<T>> trackLifecycle(List<String> resourceIds, S targetState, Duration timeoutInSeconds) {
+        if (waitStrategy == WaitStrategy.SDK_WAITER) {
+            Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+            resourceIds.forEach(id -> futures.put(id, waitWithSdkWaiterAsync(id, targetState, timeoutInSeconds)));
+            return futures;
+        }
+        return lifecyclePoller.register(this, resourceIds, targetState, timeoutInSeconds).getFutures();
+    }
+
+    /**
+     * This method starts tracking the resources on the shared {@link LifecyclePoller} until their state matches
+     * a condition, e.g. any state other than Updating.
+     * @param resourceIds  - resource ids
+     * @param condition - condition on the resource state
+     * @param description - description of the condition, used in the logs and to pick the poll schedule
+     * @param timeout - timeout
+     * @return a future per resource id, completed when the resource state matches the condition or failed with
+     * {@link WaitForStateException} on a faulty state or timeout
+     */
+    public Map<String, CompletableFuture<T>> trackLifecycle(List<String> resourceIds, Predicate<S> condition, String description, Duration timeout) {
+        return lifecyclePoller.register(this, resourceIds, condition, description, timeout).getFutures();
+    }
+
     /**
      * This method waits for a specified target state for the resources.
      * @param resourceIds  - resource ids
@@ -89,52 +324,212 @@ public abstract class AbstractManager<T, S> {
      * @throws WaitForStateException - if the target state is not reached
      */
     public void waitForLifecycle(List<String> resourceIds, S targetState, Duration timeoutInSeconds) {
-        final Instant startTime = Instant.now();
-        final Instant timeout = startTime.plus(timeoutInSeconds);
-        boolean hasFaultyState = false;
-        int exceptionLimit = 0;
-
-        do {
+        if (waitStrategy == WaitStrategy.SDK_WAITER) {
+            // Fails as soon as one resource fails, like the poller, the other waiters being cancelled
+            final Collection<CompletableFuture<T>> futures = trackLifecycle(resourceIds, targetState, timeoutInSeconds).values();
+            final CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+            futures.forEach(future -> future.whenComplete((resource, throwable) -> {
+                if (throwable != null) {
+                    all.completeExceptionally(throwable);
+                }
+            }));
             try {
-                updateResourcesList(resourceIds);
-                exceptionLimit = 0;
-            } catch (BmcException e) {
-                log.error(String.format("%s - exception limit %d/%d", e.getMessage(), exceptionLimit, EXCEPTION_LIMIT));
-                exceptionLimit++;
+                FutureUtils.join(all);
+            } finally {
+                futures.forEach(future -> future.cancel(false));
             }
+            return;
+        }
+        LifecycleWait<T, S> wait = lifecyclePoller.register(this, resourceIds, targetState, timeoutInSeconds);
+        FutureUtils.join(wait.getCompletion());
+    }
+
+    /**
+     * This method waits for a specified target state for an resource.
+     * @param resourceId  - resource id
+     * @param targetState - resource target state
+     * @param timeoutInSeconds - timeout in seconds
+     * @throws WaitForStateException - if the target state is not reached
+     */
+    public void waitForLifecycle(String resourceId, S targetState, Duration timeoutInSeconds) {
+        waitForLifecycle(Collections.singletonList(resourceId), targetState, timeoutInSeconds);
+    }
+
+    /**
+     * Sends a request on the async executor, then tracks the resource it acts on until the target state.
+     * No thread is blocked while waiting: the state is polled by the shared {@link LifecyclePoller}.
+     * @param request - request to the service
+     * @param resourceIdGetter - id of the resource from the response
+     * @param targetState - resource target state
+     * @param timeout - timeout of the wait, starting once the request is sent
+     * @return a future completed with the resource in the target state, completed on the async executor; it fails
+     * with the request exception, or with {@link WaitForStateException} on a faulty state or timeout
+     */
+    <R> CompletableFuture<T> submitAndTrack(Supplier<R> request, Function<R, String> resourceIdGetter, S targetState, Duration timeout) {
+        return submitAndTrack(request, resourceIdGetter, null, targetState, timeout);
+    }
+
+    /**
+     * Same as {@link #submitAndTrack(Supplier, Function, Object, Duration)}, also following the work request of the
+     * operation: the resource is polled as soon as the work request is done, and the wait fails right away
+     * with the work request errors if it Failed.
+     * @param workRequestIdGetter - id of the work request from the response, may return null
+     */
+    <R> CompletableFuture<T> submitAndTrack(Supplier<R> request, Function<R, String> resourceIdGetter,
+                                           Function<R, String> workRequestIdGetter, S targetState, Duration timeout) {
+        final CompletableFuture<T> tracked = CompletableFuture.supplyAsync(request, asyncExecutor)
+            .thenCompose(response -> {
+                String resourceId = resourceIdGetter.apply(response);
+                CompletableFuture<T> resourceFuture = trackLifecycle(Collections.singletonList(resourceId), targetState, timeout).get(resourceId);
+                if (workRequestIdGetter != null && config.isTrackWorkRequests()) {
+                    followWorkRequest(resourceId, () -> workRequestIdGetter.apply(response), resourceFuture);
+                }
+                return resourceFuture;
+            });
 
-            if (!getIdListWithFaultyStates().isEmpty()) {
-                hasFaultyState = true;
-                break;
+        // The wait completes on a poller thread, the caller's stages must not run there
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        tracked.whenCompleteAsync((resource, throwable) -> {
+            if (throwable == null) {
+                result.complete(resource);
+            } else {
+                result.completeExceptionally(FutureUtils.unwrap(throwable));
             }
+        }, asyncExecutor);
+        return result;
+    }
 
-            long executedTime = startTime.until(Instant.now(), ChronoUnit.SECONDS);
-            log.info(WAIT_MESSAGE, targetState, executedTime, timeoutInSeconds.getSeconds(), this);
-            sleepUninterruptibly(SLEEP_TIME, SECONDS);
+    private void followWorkRequest(String resourceId, Supplier<String> workRequestIdGetter, CompletableFuture<T> resourceFuture) {
+        final String workRequestId;
+        try {
+            workRequestId = workRequestIdGetter.get();
+        } catch (RuntimeException e) {
+            log.debug("Can't find the work request of {}, waiting on the resource state only: {}", resourceId, e.getMessage());
+            return;
+        }
+        if (workRequestId == null) {
+            return;
+        }
+        config.getWorkRequestTracker().track(workRequestId).whenComplete((progress, throwable) -> {
+            if (throwable != null) {
+                log.debug("Can't follow work request {} of {}, waiting on the resource state only: {}", workRequestId, resourceId, throwable.getMessage());
+            } else if (progress.isFailed()) {
+                resourceFuture.completeExceptionally(new WaitForStateException(String.format(WORK_REQUEST_FAILED_MSG,
+                    workRequestId, progress.getStatus(), resourceId, progress.getErrors())));
+            } else {
+                lifecyclePoller.pollNow(this, Collections.singletonList(resourceId));
+            }
+        });
+    }
 
-        } while (Instant.now().isBefore(timeout) && exceptionLimit < EXCEPTION_LIMIT && !geIdListNotInTargetState(targetState).isEmpty());
+    /**
+     * Waits for a resource with its SDK waiter on the shared waiter executor. The faulty states end the waiter too,
+     * so a Failed resource is reported right away instead of at the timeout. Cancelling the returned future ends
+     * the waiter at its next attempt.
+     * <p>
+     * The states the resource goes through are observed from every GET of the waiter (see
+     * {@link #observeResponse(Object, Instant)}), so the lifecycle events are published as with the poller,
+     * only at the pace of the waiter's backoff.
+     */
+    private CompletableFuture<T> waitWithSdkWaiterAsync(String resourceId, S targetState, Duration timeout) {
+        final Instant startTime = Instant.now();
+        final List<S> states = new ArrayList<>();
+        states.add(targetState);
+        getFaultyStates().stream()
+            .filter(state -> !state.equals(targetState))
+            .forEach(states::add);
 
-        if (!geIdListNotInTargetState(targetState).isEmpty()) {
-            String message;
+        final CompletableFuture<T> waited = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(() -> {
+            if (waited.isDone()) {
+                // Cancelled while queued
+                return null;
+            }
+            // The wait may have been queued behind others on the bounded executor
+            Duration remaining = timeout.minus(Duration.between(startTime, Instant.now()));
+            T resource = null;
+            if (!remaining.isNegative() && !remaining.isZero()) {
+                try {
+                    resource = waitWithSdkWaiter(resourceId, states, terminationStrategy(remaining, waited::isDone));
+                } catch (BmcException e) {
+                    if (!MAX_WAIT_EXCEEDED.equals(e.getServiceCode())) {
+                        throw e;
+                    }
+                    remaining = Duration.ZERO;
+                }
+            }
+            if (remaining.isNegative() || remaining.isZero()) {
+                throw new WaitForStateException(String.format(LifecycleWait.TIMEOUT_MSG, targetState, Collections.singletonList(resourceId)), true);
+            }
 
-            if (hasFaultyState) {
-                message = String.format(FAILED_MSG, getFaultyStates(), targetState, getIdListWithFaultyStates());
-                throw new WaitForStateException(message);
+            if (resource == null) {
+                // Gone while waiting for its deletion
+                resource = registry.getResource(resourceId);
             } else {
-                message = String.format(TIMEOUT_MSG, targetState, geIdListNotInTargetState(targetState));
-                throw new WaitForStateException(message, true);
+                // Already observed from the last GET of the waiter
+                S state = getResourceLifeCycleState(resource);
+                if (!targetState.equals(state)) {
+                    throw new WaitForStateException(String.format(LifecycleWait.FAILED_MSG, getFaultyStates(), targetState,
+                        Collections.singletonList(resourceId)));
+                }
+            }
+            recordTimeToState(targetState, Duration.between(startTime, Instant.now()));
+            return resource;
+        }, sdkWaiterExecutor).whenComplete((resource, throwable) -> {
+            if (throwable != null) {
+                waited.completeExceptionally(throwable);
+            } else {
+                waited.complete(resource);
+            }
+        });
+        return waited;
+    }
+
+    /**
+     * Ends a waiter at its max time, or at its next attempt once the wait is cancelled.
+     */
+    private static TerminationStrategy terminationStrategy(Duration maxWait, BooleanSupplier cancelled) {
+        final MaxTimeTerminationStrategy maxTime = new MaxTimeTerminationStrategy(maxWait.toMillis());
+        return new TerminationStrategy() {
+            @Override
+            public boolean shouldTerminate(WaitContext context) {
+                return cancelled.getAsBoolean() || maxTime.shouldTerminate(context);
+            }
+
+            @Override
+            public BmcException newTerminationException(long timeWaitedInMillis, int numAttempts) {
+                return maxTime.newTerminationException(timeWaitedInMillis, numAttempts);
             }
+        };
+    }
+
+    /**
+     * Keeps a resource returned by a call made outside the manager methods, e.g. each GET of an SDK waiter,
+     * so the transitions it goes through are published as the ones seen by the poller.
+     * @param resource - resource returned by the call, ignored if null
+     * @param requestedAt - time the call was sent
+     */
+    void observeResponse(T resource, Instant requestedAt) {
+        if (resource != null) {
+            observe(getResourceId(resource), resource, requestedAt);
         }
     }
 
     /**
-     * This method waits for a specified target state for an resource.
-     * @param resourceId  - resource id
-     * @param targetState - resource target state
-     * @param timeoutInSeconds - timeout in seconds
-     * @throws WaitForStateException - if the target state is not reached
+     * Runs an SDK waiter on the calling thread.
+     * @throws BmcException - if a call of the waiter failed, or with the MaximumWaitTimeExceeded service code
      */
-    public void waitForLifecycle(String resourceId, S targetState, Duration timeoutInSeconds) {
-        waitForLifecycle(Collections.singletonList(resourceId), targetState, timeoutInSeconds);
+    static <R> R execute(Waiter<?, R> waiter) {
+        try {
+            return waiter.execute();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
     }
+
 }
@@ -0,0 +1,42 @@
+package com.oci.mds.manager;
+
+import com.oci.mds.configuration.PollScheduleConfiguration;
+
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff starting with a fast probe, capped by a ceiling interval and randomized by a jitter factor
+ * so resources created together don't keep polling in lockstep.
+ */
+@ToString
+public class BackoffPollSchedule implements PollSchedule {
+
+    private final long initialDelayInMillis;
+    private final long maxDelayInMillis;
+    private final double multiplier;
+    private final double jitter;
+
+    public BackoffPollSchedule(long initialDelayInMillis, long maxDelayInMillis, double multiplier, double jitter) {
+        this.initialDelayInMillis = Math.max(0, initialDelayInMillis);
+        this.maxDelayInMillis = Math.max(this.initialDelayInMillis, maxDelayInMillis);
+        this.multiplier = Math.max(1.0, multiplier);
+        this.jitter = Math.min(1.0, Math.max(0.0, jitter));
+    }
+
+    public BackoffPollSchedule(PollScheduleConfiguration configuration) {
+        this(configuration.getInitialDelayInMillis(), configuration.getMaxDelayInMillis(),
+            configuration.getMultiplier(), configuration.getJitter());
+    }
+
+    @Override
+    public Duration nextDelay(int attempt) {
+        double delay = Math.min(maxDelayInMillis, initialDelayInMillis * Math.pow(multiplier, Math.max(0, attempt)));
+        if (jitter > 0) {
+            delay *= 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        }
+        return Duration.ofMillis((long) Math.min(maxDelayInMillis, delay));
+    }
+}
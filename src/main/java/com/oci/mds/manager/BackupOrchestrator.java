@@ -0,0 +1,224 @@
+package com.oci.mds.manager;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import com.oci.mds.configuration.ProjectConfiguration;
+import com.oci.mds.exception.WaitForStateException;
+import com.oci.mds.util.FutureUtils;
+
+import com.oracle.bmc.model.BmcException;
+import com.oracle.bmc.mysql.model.Backup;
+import com.oracle.bmc.mysql.model.CreateBackupDetails;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Backs up many DbSystems concurrently.
+ * <p>
+ * MDS runs a single operation at a time on a DbSystem, so the backups of the same DbSystem are queued and run one
+ * after the other, while the backups of different DbSystems run in parallel, at most {@code backupParallelism} at once.
+ * A backup which fails (busy DbSystem, throttling, server error or Backup ending in Failed) is retried on its own
+ * up to {@code backupRetries} times; the other backups of the batch are not affected. The Backup of a failed attempt,
+ * Failed or not Active within the create timeout, is deleted before the next attempt.
+ */
+@Slf4j
+public class BackupOrchestrator implements AutoCloseable {
+
+    private static final Duration RETRY_INTERVAL = Duration.ofSeconds(30);
+
+    private final DbSystemManager dbSystemManager;
+    private final DbBackupsManager dbBackupsManager;
+    private final int backupRetries;
+    private final Duration backupCreateTimeout;
+    private final Duration dbSystemUpdatingTimeout;
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<BackupResult>> queues = new ConcurrentHashMap<>();
+    private final Map<CompletableFuture<BackupResult>, String> pending = new ConcurrentHashMap<>();
+
+    public BackupOrchestrator(ProjectConfiguration config, DbSystemManager dbSystemManager, DbBackupsManager dbBackupsManager) {
+        this.dbSystemManager = dbSystemManager;
+        this.dbBackupsManager = dbBackupsManager;
+        this.backupRetries = config.getBackupRetries();
+        this.backupCreateTimeout = Duration.ofSeconds(config.getCreateBackupTimeoutInSeconds());
+        this.dbSystemUpdatingTimeout = Duration.ofSeconds(config.getUpdatingDbSystemTimeoutInSeconds());
+        this.executor = Executors.newFixedThreadPool(config.getBackupParallelism(),
+            new ThreadFactoryBuilder().setNameFormat("backup-orchestrator-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Queues a backup behind the ones already submitted for the same DbSystem.
+     * @param createBackupDetails - Backup details
+     * @return a future completed with the result once the Backup is Active or all its attempts failed, never exceptionally:
+     * a backup that can't run, e.g. submitted or still queued once the orchestrator is closed, gets a failed result
+     */
+    public CompletableFuture<BackupResult> submit(CreateBackupDetails createBackupDetails) {
+        final String dbSystemId = createBackupDetails.getDbSystemId();
+        final CompletableFuture<BackupResult> next = queues.compute(dbSystemId, (id, previous) ->
+            (previous == null ? CompletableFuture.<BackupResult>completedFuture(null) : previous)
+                .handle((result, throwable) -> result)
+                .thenApplyAsync(ignored -> backup(createBackupDetails), executor)
+                .handle((result, throwable) -> throwable == null ? result : failedResult(id, throwable)));
+        // Registered once compute returned: the future is already completed if the executor rejected the backup
+        pending.put(next, dbSystemId);
+        next.whenComplete((result, throwable) -> {
+            queues.remove(dbSystemId, next);
+            pending.remove(next);
+        });
+        return next;
+    }
+
+    public List<CompletableFuture<BackupResult>> submit(List<CreateBackupDetails> createBackupDetailsList) {
+        return createBackupDetailsList.stream()
+            .map(this::submit)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Backs up the DbSystems and waits for all the backups to be done.
+     * @param createBackupDetailsList - Backup details, several can target the same DbSystem
+     * @return the results, in the order of the details
+     */
+    public List<BackupResult> backupAll(List<CreateBackupDetails> createBackupDetailsList) {
+        final Instant start = Instant.now();
+        final List<BackupResult> results = submit(createBackupDetailsList).stream()
+            .map(CompletableFuture::join)
+            .collect(Collectors.toList());
+
+        final List<BackupResult> failed = results.stream()
+            .filter(result -> !result.isSucceeded())
+            .collect(Collectors.toList());
+        log.info("{} of {} backup(s) Active in {}s", results.size() - failed.size(), results.size(),
+            Duration.between(start, Instant.now()).getSeconds());
+        failed.forEach(result -> log.warn("Backup of DbSystem {} failed after {} attempt(s): {}",
+            result.getDbSystemId(), result.getAttempts(), result.getError().getMessage()));
+        return results;
+    }
+
+    /**
+     * Stops the backups in progress, the pending ones get a failed result.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        final IllegalStateException closed = new IllegalStateException("Backup orchestrator closed");
+        pending.forEach((future, dbSystemId) -> future.complete(failedResult(dbSystemId, closed)));
+    }
+
+    private BackupResult backup(CreateBackupDetails createBackupDetails) {
+        final String dbSystemId = createBackupDetails.getDbSystemId();
+        final Instant start = Instant.now();
+        RuntimeException error = null;
+        int attempt = 0;
+
+        while (attempt <= backupRetries) {
+            attempt++;
+            String backupId = null;
+            boolean retryable = true;
+            try {
+                waitWhileUpdating(dbSystemId);
+                backupId = dbBackupsManager.backupDbSystem(createBackupDetails).getBackup().getId();
+                dbBackupsManager.waitForLifecycle(backupId, Backup.LifecycleState.Active, backupCreateTimeout);
+                return BackupResult.builder()
+                    .dbSystemId(dbSystemId)
+                    .backupId(backupId)
+                    .attempts(attempt)
+                    .elapsed(Duration.between(start, Instant.now()))
+                    .build();
+            } catch (BmcException e) {
+                error = e;
+                retryable = isRetryable(e);
+            } catch (WaitForStateException e) {
+                error = e;
+            } catch (RuntimeException e) {
+                error = e;
+                retryable = false;
+            }
+
+            if (backupId != null) {
+                deleteFailedAttempt(dbSystemId, backupId);
+            }
+            if (!retryable) {
+                break;
+            }
+
+            if (attempt <= backupRetries) {
+                log.warn("Backup {} of DbSystem {} failed (attempt {}/{}), retrying in {}s: {}",
+                    backupId, dbSystemId, attempt, backupRetries + 1, RETRY_INTERVAL.getSeconds(), error.getMessage());
+                sleepUninterruptibly(RETRY_INTERVAL.toMillis(), MILLISECONDS);
+            }
+        }
+
+        return BackupResult.builder()
+            .dbSystemId(dbSystemId)
+            .attempts(attempt)
+            .elapsed(Duration.between(start, Instant.now()))
+            .error(error)
+            .build();
+    }
+
+    private static BackupResult failedResult(String dbSystemId, Throwable throwable) {
+        return BackupResult.builder()
+            .dbSystemId(dbSystemId)
+            .elapsed(Duration.ZERO)
+            .error(FutureUtils.unwrap(throwable))
+            .build();
+    }
+
+    /**
+     * Waits until the DbSystem leaves Updating, e.g. a backup or an update started elsewhere.
+     */
+    private void waitWhileUpdating(String dbSystemId) {
+        FutureUtils.join(dbSystemManager.trackWhileUpdating(Collections.singletonList(dbSystemId), dbSystemUpdatingTimeout)
+            .get(dbSystemId));
+    }
+
+    /**
+     * Deletes the Backup of a failed attempt, so the retries don't leave one Backup per attempt behind.
+     * A Backup can only be deleted once done, i.e. when its DbSystem is no longer Updating.
+     */
+    private void deleteFailedAttempt(String dbSystemId, String backupId) {
+        try {
+            waitWhileUpdating(dbSystemId);
+            dbBackupsManager.deleteDbBackup(backupId);
+            log.info("Deleting Backup {} of a failed attempt", backupId);
+        } catch (RuntimeException e) {
+            if (!(e instanceof BmcException && ((BmcException) e).getStatusCode() == 404)) {
+                log.warn("Can't delete Backup {} of a failed attempt: {}", backupId, e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isRetryable(BmcException e) {
+        return e.getStatusCode() == 409 || e.getStatusCode() == 429 || e.getStatusCode() >= 500;
+    }
+
+    @Value
+    @Builder
+    public static class BackupResult {
+        private String dbSystemId;
+        private String backupId;
+        private int attempts;
+        private Duration elapsed;
+        private Throwable error;
+
+        public boolean isSucceeded() {
+            return error == null;
+        }
+    }
+}
@@ -2,8 +2,13 @@ package com.oci.mds.manager;
 
 import com.oci.mds.configuration.ProjectConfiguration;
 import com.oci.mds.exception.ExecutionException;
+import com.oci.mds.util.ApiInvoker;
+import com.oci.mds.util.PageIterator;
+import com.oci.mds.util.SingleFlight;
+import com.oci.mds.util.SnapshotCache;
 import com.oracle.bmc.model.BmcException;
 import com.oracle.bmc.mysql.DbBackupsClient;
+import com.oracle.bmc.mysql.DbBackupsWaiters;
 import com.oracle.bmc.mysql.model.Backup;
 import com.oracle.bmc.mysql.model.Backup.LifecycleState;
 import com.oracle.bmc.mysql.model.BackupSummary;
@@ -19,6 +24,8 @@ import com.oracle.bmc.mysql.responses.DeleteBackupResponse;
 import com.oracle.bmc.mysql.responses.GetBackupResponse;
 import com.oracle.bmc.mysql.responses.ListBackupsResponse;
 import com.oracle.bmc.mysql.responses.UpdateBackupResponse;
+import com.oracle.bmc.waiter.ExponentialBackoffDelayStrategy;
+import com.oracle.bmc.waiter.TerminationStrategy;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
@@ -26,8 +33,14 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -35,17 +48,34 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 @Slf4j
 public class DbBackupsManager extends AbstractManager<Backup, LifecycleState> {
 
+    private static final String CLIENT = "DbBackups";
+
     private final DbBackupsClient dbBackupsClient;
+    private final ApiInvoker apiInvoker;
+    private final SingleFlight<String, Backup> getBackupFlights = new SingleFlight<>();
+    private final SnapshotCache snapshotCache;
     private final Duration backupCreateTimeout;
     private final Duration backupDeleteTimeout;
-    private List<String> dbBackupIds;
+    private final DbBackupsWaiters dbBackupsWaiters;
+    private final Duration sdkWaiterMaxDelay;
 
     public DbBackupsManager(ProjectConfiguration config) {
         super(config);
         dbBackupsClient = config.getDbBackupsClient();
-        dbBackupIds = new ArrayList<>();
+        apiInvoker = config.getApiInvoker();
+        snapshotCache = config.getSnapshotCache();
         backupCreateTimeout = Duration.ofSeconds(config.getCreateBackupTimeoutInSeconds());
         backupDeleteTimeout = Duration.ofSeconds(config.getDeleteBackupTimeoutInSeconds());
+        // The waiter calls go through the api invoker too, to be counted and rate limited like the others,
+        // and each Backup they get is observed
+        dbBackupsWaiters = new DbBackupsWaiters(config.getSdkWaiterExecutor(),
+            apiInvoker.instrument(com.oracle.bmc.mysql.DbBackups.class, CLIENT, dbBackupsClient, (requestedAt, response) -> {
+                if (response instanceof GetBackupResponse) {
+                    observeResponse(((GetBackupResponse) response).getBackup(), requestedAt);
+                }
+            }));
+        sdkWaiterMaxDelay = Duration.ofSeconds(config.getSdkWaiterMaxDelayInSeconds());
+        setWaitStrategy(config.getBackupWaitStrategy());
     }
 
     /* CREATE Methods */
@@ -56,11 +86,17 @@ public class DbBackupsManager extends AbstractManager<Backup, LifecycleState> {
                 .createBackupDetails(createBackupDetails)
                 .build();
 
-        CreateBackupResponse createBackupResponse = dbBackupsClient.createBackup(backupDbSysRequest);
-        dbBackupIds.add(createBackupResponse.getBackup().getId());
+        CreateBackupResponse createBackupResponse = apiInvoker.invoke(CLIENT, "CreateBackup", () -> dbBackupsClient.createBackup(backupDbSysRequest));
+        // The DbSystem is Updating while it is backed up
+        snapshotCache.invalidate(createBackupDetails.getDbSystemId());
+        register(createBackupResponse.getBackup().getId());
         return createBackupResponse;
     }
 
+    /**
+     * Sends the create requests one after the other; if one fails, all the backups of this manager are deleted.
+     * See {@link BackupOrchestrator} to back up many DbSystems in parallel, retrying the failed backups individually.
+     */
     public List<CreateBackupResponse> backupDbSystem(List<CreateBackupDetails> createBackupDetailsList) {
         List<CreateBackupRequest> requestList = createBackupDetailsList.stream()
             .map(bkp -> CreateBackupRequest.builder().createBackupDetails(bkp).build())
@@ -72,7 +108,8 @@ public class DbBackupsManager extends AbstractManager<Backup, LifecycleState> {
         try {
             for (CreateBackupRequest req : requestList) {
                 createBackupRequest = req;
-                responseList.add(dbBackupsClient.createBackup(req));
+                responseList.add(apiInvoker.invoke(CLIENT, "CreateBackup", () -> dbBackupsClient.createBackup(req)));
+                snapshotCache.invalidate(req.getCreateBackupDetails().getDbSystemId());
             }
         } catch (BmcException e) {
             CreateBackupDetails details = createBackupRequest == null ? null : createBackupRequest.getCreateBackupDetails();
@@ -80,7 +117,7 @@ public class DbBackupsManager extends AbstractManager<Backup, LifecycleState> {
             createException = true;
         }
 
-        dbBackupIds.addAll(responseList.stream()
+        register(responseList.stream()
             .map(CreateBackupResponse::getBackup)
             .map(Backup::getId)
             .collect(Collectors.toList()));
@@ -111,10 +148,29 @@ public class DbBackupsManager extends AbstractManager<Backup, LifecycleState> {
         return createBackupResponses;
     }
 
+    /**
+     * Creates a Backup without blocking the caller.
+     * @param createBackupDetails - Backup details
+     * @return a future completed with the Backup once Active, failed with {@link com.oci.mds.exception.WaitForStateException}
+     * if it reaches Failed or the create timeout expires
+     */
+    public CompletableFuture<Backup> backupDbSystemAsync(CreateBackupDetails createBackupDetails) {
+        return submitAndTrack(() -> backupDbSystem(createBackupDetails), response -> response.getBackup().getId(),
+            response -> findWorkRequestId(response.getBackup()), LifecycleState.Active, backupCreateTimeout);
+    }
+
+    public List<CompletableFuture<Backup>> backupDbSystemsAsync(List<CreateBackupDetails> createBackupDetailsList) {
+        return createBackupDetailsList.stream()
+            .map(this::backupDbSystemAsync)
+            .collect(Collectors.toList());
+    }
+
     /* DELETE Methods */
 
     public DeleteBackupResponse deleteDbBackup(DeleteBackupRequest deleteBackupRequest) {
-        return dbBackupsClient.deleteBackup(deleteBackupRequest);
+        DeleteBackupResponse response = apiInvoker.invoke(CLIENT, "DeleteBackup", () -> dbBackupsClient.deleteBackup(deleteBackupRequest));
+        snapshotCache.invalidate(deleteBackupRequest.getBackupId());
+        return response;
     }
 
     public DeleteBackupResponse deleteDbBackup(String dbBackupId) {
@@ -140,38 +196,67 @@ public class DbBackupsManager extends AbstractManager<Backup, LifecycleState> {
         waitForLifecycle(dbBackupIdList, LifecycleState.Deleted, backupDeleteTimeout);
     }
 
+    public CompletableFuture<Backup> deleteDbBackupAsync(String dbBackupId) {
+        return submitAndTrack(() -> deleteDbBackup(dbBackupId), response -> dbBackupId,
+            LifecycleState.Deleted, backupDeleteTimeout);
+    }
+
     public List<DeleteBackupResponse> deleteAllDbBackups() {
-        return deleteDbBackup(dbBackupIds);
+        return deleteDbBackup(getRegisteredIds());
     }
 
     public void deleteAllDbBackupsAndWaitForState() {
-        deleteDbBackupAndWaitForState(dbBackupIds);
+        deleteDbBackupAndWaitForState(getRegisteredIds());
     }
 
 
     /* GET Methods */
 
     public GetBackupResponse getDbBackup(GetBackupRequest getBackupRequest) {
-        return dbBackupsClient.getBackup(getBackupRequest);
+        return apiInvoker.invoke(CLIENT, "GetBackup", () -> dbBackupsClient.getBackup(getBackupRequest));
     }
 
+    /**
+     * Gets a Backup, accepting a snapshot as old as the configured snapshot max age.
+     */
     public Backup getDbBackup(String backupId) {
+        return getDbBackup(backupId, snapshotCache.getDefaultMaxAge());
+    }
+
+    /**
+     * Gets a Backup from the shared snapshot cache, or from the service if the snapshot is older than {@code maxAge};
+     * concurrent calls for the same id share a single request, if it was sent at most {@code maxAge} ago.
+     * @param backupId - Backup id
+     * @param maxAge - max age of the snapshot, {@link Duration#ZERO} to always get it from the service
+     * @return the Backup
+     */
+    public Backup getDbBackup(String backupId, Duration maxAge) {
         GetBackupRequest backupRequest = GetBackupRequest.builder().backupId(backupId).build();
-        return getDbBackup(backupRequest).getBackup();
+        final Instant sentAfter = Instant.now().minus(maxAge);
+        return snapshotCache.get(backupId, maxAge,
+            () -> getBackupFlights.execute(backupId, sentAfter, () -> getDbBackup(backupRequest).getBackup()));
     }
 
     public LifecycleState getLifecycleState(String backupId) {
         return getDbBackup(backupId).getLifecycleState();
     }
 
+    public LifecycleState getLifecycleState(String backupId, Duration maxAge) {
+        return getDbBackup(backupId, maxAge).getLifecycleState();
+    }
+
     public List<Backup> getDbBackups() {
-        return dbBackupIds.stream()
-            .map(this::getDbBackup)
+        return getDbBackups(snapshotCache.getDefaultMaxAge());
+    }
+
+    public List<Backup> getDbBackups(Duration maxAge) {
+        return getRegisteredIds().stream()
+            .map(id -> getDbBackup(id, maxAge))
             .collect(Collectors.toList());
     }
 
     public List<String> getDbBackupIds() {
-        return new ArrayList<>(dbBackupIds);
+        return getRegisteredIds();
     }
 
     /* LIST methods */
@@ -180,21 +265,23 @@ public class DbBackupsManager extends AbstractManager<Backup, LifecycleState> {
         final ListBackupsRequest listBackupsRequest = ListBackupsRequest.builder()
             .compartmentId(compartmentId)
             .limit(limit).build();
-        return listBackups(listBackupsRequest).getItems();
+        try (Stream<BackupSummary> backups = streamBackups(listBackupsRequest)) {
+            return backups.limit(limit).collect(Collectors.toList());
+        }
     }
 
     public List<BackupSummary> listBackups(String compartmentId, LifecycleState state) {
         final ListBackupsRequest listBackupsRequest = ListBackupsRequest.builder()
             .compartmentId(compartmentId)
             .lifecycleState(state).build();
-        return listBackups(listBackupsRequest).getItems();
+        return streamBackups(listBackupsRequest, true).collect(Collectors.toList());
     }
 
     public List<BackupSummary> listBackups(String compartmentId, String backupId) {
         final ListBackupsRequest listBackupsRequest = ListBackupsRequest.builder()
             .compartmentId(compartmentId)
             .backupId(backupId).build();
-        return listBackups(listBackupsRequest).getItems();
+        return streamBackups(listBackupsRequest, true).collect(Collectors.toList());
     }
 
     public List<BackupSummary> listBackups(String compartmentId, String backupId, LifecycleState state) {
@@ -202,21 +289,55 @@ public class DbBackupsManager extends AbstractManager<Backup, LifecycleState> {
             .compartmentId(compartmentId)
             .backupId(backupId)
             .lifecycleState(state).build();
-        return listBackups(listBackupsRequest).getItems();
+        return streamBackups(listBackupsRequest, true).collect(Collectors.toList());
     }
 
     public ListBackupsResponse listBackups(ListBackupsRequest listBackupsRequest) {
-        return dbBackupsClient.listBackups(listBackupsRequest);
+        return apiInvoker.invoke(CLIENT, "ListBackups", () -> dbBackupsClient.listBackups(listBackupsRequest));
+    }
+
+    public Stream<BackupSummary> streamBackups(String compartmentId) {
+        final ListBackupsRequest listBackupsRequest = ListBackupsRequest.builder()
+            .compartmentId(compartmentId).build();
+        return streamBackups(listBackupsRequest);
+    }
+
+    /**
+     * Streams the Backups matching the request, fetching the pages lazily.
+     */
+    public Stream<BackupSummary> streamBackups(ListBackupsRequest listBackupsRequest) {
+        return streamBackups(listBackupsRequest, false);
+    }
+
+    /**
+     * Same as {@link #streamBackups(ListBackupsRequest)}.
+     * @param prefetch - prefetches the next page in the background, only worth it when the whole list is consumed
+     */
+    public Stream<BackupSummary> streamBackups(ListBackupsRequest listBackupsRequest, boolean prefetch) {
+        return PageIterator.stream(
+            page -> listBackups(ListBackupsRequest.builder().copy(listBackupsRequest).page(page).build()),
+            ListBackupsResponse::getItems,
+            ListBackupsResponse::getOpcNextPage,
+            prefetch);
     }
 
     public boolean isBackupInCompartmentList(String compartmentId, String backupId) {
-        return listBackups(compartmentId, backupId).stream()
-            .anyMatch(bkp -> bkp.getId().equals(backupId));
+        final ListBackupsRequest listBackupsRequest = ListBackupsRequest.builder()
+            .compartmentId(compartmentId)
+            .backupId(backupId).build();
+        try (Stream<BackupSummary> backups = streamBackups(listBackupsRequest)) {
+            return backups.anyMatch(bkp -> bkp.getId().equals(backupId));
+        }
     }
 
     public boolean isBackupInCompartmentList(String compartmentId, String backupId, LifecycleState state) {
-        return listBackups(compartmentId, backupId, state).stream()
-            .anyMatch(bkp -> bkp.getId().equals(backupId));
+        final ListBackupsRequest listBackupsRequest = ListBackupsRequest.builder()
+            .compartmentId(compartmentId)
+            .backupId(backupId)
+            .lifecycleState(state).build();
+        try (Stream<BackupSummary> backups = streamBackups(listBackupsRequest)) {
+            return backups.anyMatch(bkp -> bkp.getId().equals(backupId));
+        }
     }
 
     public List<BackupSummary> listBackupsForDbSystem(String compartmentId, String dbSystemId) {
@@ -225,16 +346,18 @@ public class DbBackupsManager extends AbstractManager<Backup, LifecycleState> {
             .compartmentId(compartmentId)
             .dbSystemId(dbSystemId)
             .build();
-        return listBackups(listBackupsRequest).getItems();
+        return streamBackups(listBackupsRequest, true).collect(Collectors.toList());
     }
 
     /* UPDATE methods */
 
     public UpdateBackupResponse updateBackup(String backupId, UpdateBackupDetails updateBackupDetails) {
-        return dbBackupsClient.updateBackup(UpdateBackupRequest.builder()
+        UpdateBackupResponse response = apiInvoker.invoke(CLIENT, "UpdateBackup", () -> dbBackupsClient.updateBackup(UpdateBackupRequest.builder()
             .backupId(backupId)
             .updateBackupDetails(updateBackupDetails)
-            .build());
+            .build()));
+        snapshotCache.invalidate(backupId);
+        return response;
     }
 
     /* WAIT Methods */
@@ -245,7 +368,7 @@ public class DbBackupsManager extends AbstractManager<Backup, LifecycleState> {
 
         Instant waitTill = Instant.now().plus(timeoutInSeconds);
         while (Instant.now().isBefore(waitTill)) {
-            listBackups = dbBackupsClient.listBackups(listBackupsRequest).getItems();
+            listBackups = streamBackups(listBackupsRequest, true).collect(Collectors.toList());
             if (listBackups.size() == expectedListSize) {
                 break;
             }
@@ -260,8 +383,20 @@ public class DbBackupsManager extends AbstractManager<Backup, LifecycleState> {
         return listBackups;
     }
 
+    /**
+     * The create response doesn't carry the work request id, it is looked up by resource.
+     */
+    private String findWorkRequestId(Backup backup) {
+        return config.getWorkRequestTracker().findWorkRequestId(backup.getCompartmentId(), backup.getId()).orElse(null);
+    }
+
     /* Overridden helper methods to be used in 'waitForLifecycle' methods from super class */
 
+    @Override
+    String getResourceType() {
+        return "Backup";
+    }
+
     @Override
     String getResourceId(Backup resource) {
         return resource.getId();
@@ -269,7 +404,29 @@ public class DbBackupsManager extends AbstractManager<Backup, LifecycleState> {
 
     @Override
     Backup getResource(String resourceId) {
-        return getDbBackup(resourceId);
+        return getDbBackup(resourceId, Duration.ZERO);
+    }
+
+    @Override
+    Map<String, LifecycleState> listResourceStates(Collection<String> compartmentIds, Set<String> resourceIds) {
+        Map<String, LifecycleState> states = new HashMap<>();
+        for (String compartmentId : compartmentIds) {
+            try (Stream<BackupSummary> backups = streamBackups(compartmentId)) {
+                Iterator<BackupSummary> summaries = backups
+                    .filter(summary -> resourceIds.contains(summary.getId()))
+                    .iterator();
+                while (states.size() < resourceIds.size() && summaries.hasNext()) {
+                    BackupSummary summary = summaries.next();
+                    states.put(summary.getId(), summary.getLifecycleState());
+                }
+            }
+        }
+        return states;
+    }
+
+    @Override
+    String getResourceCompartmentId(Backup resource) {
+        return resource.getCompartmentId();
     }
 
     @Override
@@ -291,4 +448,23 @@ public class DbBackupsManager extends AbstractManager<Backup, LifecycleState> {
     Collection<LifecycleState> getFaultyStates() {
         return Collections.singletonList(LifecycleState.Failed);
     }
+
+    @Override
+    Backup waitWithSdkWaiter(String backupId, Collection<LifecycleState> states, TerminationStrategy terminationStrategy) {
+        final GetBackupRequest request = GetBackupRequest.builder().backupId(backupId).build();
+        try {
+            GetBackupResponse response = execute(dbBackupsWaiters.forBackup(request,
+                terminationStrategy,
+                new ExponentialBackoffDelayStrategy(sdkWaiterMaxDelay.toMillis()),
+                states.toArray(new LifecycleState[0])));
+            return response == null ? null : response.getBackup();
+        } catch (BmcException e) {
+            if (e.getStatusCode() == 404 && states.contains(LifecycleState.Deleted)) {
+                return null;
+            }
+            throw e;
+        } finally {
+            snapshotCache.invalidate(backupId);
+        }
+    }
 }
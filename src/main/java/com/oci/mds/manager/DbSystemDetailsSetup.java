@@ -85,7 +85,8 @@ public class DbSystemDetailsSetup {
 
     public CreateDbSystemDetails createDbSystemDetails() {
 
-        dataStorageSize = (backupPolicy == null) ? dataStorageSize : null;
+        // A DbSystem restored from a Backup gets the storage size of the Backup
+        dataStorageSize = (backupPolicy == null && sourceDetails == null) ? dataStorageSize : null;
 
         return CreateDbSystemDetails.builder()
             .compartmentId(compartmentId)
@@ -1,10 +1,20 @@
 package com.oci.mds.manager;
 
+
 import com.oci.mds.configuration.ProjectConfiguration;
+import com.oci.mds.exception.ExecutionException;
+import com.oci.mds.util.ApiInvoker;
+import com.oci.mds.util.FutureUtils;
+import com.oci.mds.util.PageIterator;
+import com.oci.mds.util.SingleFlight;
+import com.oci.mds.util.SnapshotCache;
 
 import com.oracle.bmc.model.BmcException;
 import com.oracle.bmc.mysql.DbSystemClient;
+import com.oracle.bmc.mysql.DbSystemWaiters;
+import com.oracle.bmc.mysql.model.Backup;
 import com.oracle.bmc.mysql.model.CreateDbSystemDetails;
+import com.oracle.bmc.mysql.model.CreateDbSystemSourceFromBackupDetails;
 import com.oracle.bmc.mysql.model.DbSystem;
 import com.oracle.bmc.mysql.model.DbSystem.LifecycleState;
 import com.oracle.bmc.mysql.model.DbSystemSummary;
@@ -29,32 +39,76 @@ import com.oracle.bmc.mysql.responses.StartDbSystemResponse;
 import com.oracle.bmc.mysql.responses.StopDbSystemResponse;
 import com.oracle.bmc.mysql.responses.UpdateDbSystemResponse;
 
+import com.oracle.bmc.waiter.ExponentialBackoffDelayStrategy;
+import com.oracle.bmc.waiter.TerminationStrategy;
+
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
 
+    private static final String CLIENT = "DbSystem";
+    private static final String NOT_UPDATING = "Not Updating";
+    private static final Predicate<LifecycleState> NOT_UPDATING_CONDITION = state -> !LifecycleState.Updating.equals(state);
+
     private final DbSystemClient dbSystemClient;
+    private final ApiInvoker apiInvoker;
+    private final SingleFlight<String, DbSystem> getDbSystemFlights = new SingleFlight<>();
+    private final SnapshotCache snapshotCache;
     private final Duration dbSystemCreateTimeout;
     private final Duration dbSystemDeleteTimeout;
     private final Duration dbSystemUpdatingTimeout;
-    private List<String> dbSystemIds;
+    private final Duration dbSystemCreateRequestTimeout;
+    private final int dbSystemCreateParallelism;
+    private final Executor asyncExecutor;
+    private final DbSystemWaiters dbSystemWaiters;
+    private final Duration sdkWaiterMaxDelay;
 
     public DbSystemManager(ProjectConfiguration config) {
         super(config);
         dbSystemClient = config.getDbSystemClient();
-        dbSystemIds = new ArrayList<>();
+        apiInvoker = config.getApiInvoker();
+        snapshotCache = config.getSnapshotCache();
         dbSystemCreateTimeout = Duration.ofSeconds(config.getCreateDbSystemTimeoutInSeconds());
         dbSystemDeleteTimeout = Duration.ofSeconds(config.getDeleteDbSystemTimeoutInSeconds());
         dbSystemUpdatingTimeout = Duration.ofSeconds(config.getUpdatingDbSystemTimeoutInSeconds());
+        dbSystemCreateRequestTimeout = Duration.ofSeconds(config.getCreateDbSystemRequestTimeoutInSeconds());
+        dbSystemCreateParallelism = config.getCreateDbSystemParallelism();
+        asyncExecutor = config.getAsyncExecutor();
+        // The waiter calls go through the api invoker too, to be counted and rate limited like the others,
+        // and each DbSystem they get is observed
+        dbSystemWaiters = new DbSystemWaiters(config.getSdkWaiterExecutor(),
+            apiInvoker.instrument(com.oracle.bmc.mysql.DbSystem.class, CLIENT, dbSystemClient, (requestedAt, response) -> {
+                if (response instanceof GetDbSystemResponse) {
+                    observeResponse(((GetDbSystemResponse) response).getDbSystem(), requestedAt);
+                }
+            }));
+        sdkWaiterMaxDelay = Duration.ofSeconds(config.getSdkWaiterMaxDelayInSeconds());
+        setWaitStrategy(config.getDbSystemWaitStrategy());
     }
 
     /* CREATE Methods */
@@ -65,12 +119,16 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
                 .createDbSystemDetails(createDbSystemDetails)
                 .build();
 
-        CreateDbSystemResponse createDbSystemResponse = dbSystemClient.createDbSystem(request);
-        dbSystemIds.add(createDbSystemResponse.getDbSystem().getId());
+        CreateDbSystemResponse createDbSystemResponse = apiInvoker.invoke(CLIENT, "CreateDbSystem", () -> dbSystemClient.createDbSystem(request));
+        register(createDbSystemResponse.getDbSystem().getId());
         return createDbSystemResponse;
     }
 
     public List<CreateDbSystemResponse> createDbSystems(List<CreateDbSystemDetails> dbSystemDetailsList) {
+        if (dbSystemCreateParallelism > 1 && dbSystemDetailsList.size() > 1) {
+            return createDbSystems(dbSystemDetailsList, dbSystemCreateParallelism, dbSystemCreateRequestTimeout);
+        }
+
         List<CreateDbSystemRequest> requestList = dbSystemDetailsList.stream()
             .map(db -> CreateDbSystemRequest
                 .builder().createDbSystemDetails(db)
@@ -83,7 +141,7 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
         try {
             for (CreateDbSystemRequest req : requestList) {
                 createDbSystemRequest = req;
-                responseList.add(dbSystemClient.createDbSystem(req));
+                responseList.add(apiInvoker.invoke(CLIENT, "CreateDbSystem", () -> dbSystemClient.createDbSystem(req)));
             }
         } catch (BmcException e) {
             final CreateDbSystemDetails details = createDbSystemRequest == null ? null : createDbSystemRequest.getCreateDbSystemDetails();
@@ -91,7 +149,102 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
             createException = true;
         }
 
-        dbSystemIds.addAll(responseList.stream()
+        return registerCreatedDbSystems(responseList, createException);
+    }
+
+    /**
+     * Sends the create requests in parallel on the async executor, with at most {@code parallelism} requests in flight.
+     * <p>
+     * Like the sequential mode it is all-or-nothing: a failed request, or one still running {@code requestTimeout}
+     * after it was sent, stops the requests not sent yet and deletes every DbSystem created by the batch. The budget
+     * is enforced when it runs out, but the requests over budget are still awaited, as they may create a DbSystem
+     * which has to be deleted too.
+     * @param dbSystemDetailsList - details of the DbSystems to create
+     * @param parallelism - max number of concurrent create requests
+     * @param requestTimeout - latency budget of a single create request
+     * @return the responses in the same order as the details, or an empty list if the batch was rolled back
+     */
+    public List<CreateDbSystemResponse> createDbSystems(List<CreateDbSystemDetails> dbSystemDetailsList, int parallelism, Duration requestTimeout) {
+        final int maxInFlight = Math.max(1, parallelism);
+        final AtomicBoolean createException = new AtomicBoolean(false);
+        final CreateDbSystemResponse[] responses = new CreateDbSystemResponse[dbSystemDetailsList.size()];
+        final Deque<PendingCreate> inFlight = new ArrayDeque<>();
+        final List<PendingCreate> overBudget = new ArrayList<>();
+        RuntimeException unexpectedException = null;
+
+        int next = 0;
+        while (!inFlight.isEmpty() || (next < responses.length && !createException.get())) {
+            if (next < responses.length && !createException.get() && inFlight.size() < maxInFlight) {
+                inFlight.add(sendCreateDbSystem(next, dbSystemDetailsList.get(next), requestTimeout, createException));
+                next++;
+                continue;
+            }
+
+            // The requests are sent in order, so the oldest one is the first to run out of budget
+            final PendingCreate oldest = inFlight.poll();
+            try {
+                responses[oldest.index] = FutureUtils.getUninterruptibly(oldest.response, Duration.between(Instant.now(), oldest.deadline));
+            } catch (TimeoutException e) {
+                log.error("CreateDbSystem request still running after the {}ms budget: \n{}", requestTimeout.toMillis(), oldest.details);
+                createException.set(true);
+                overBudget.add(oldest);
+            } catch (RuntimeException e) {
+                createException.set(true);
+                unexpectedException = e;
+            }
+        }
+
+        // Every request sent is awaited, so all the DbSystems created are registered before the rollback
+        for (PendingCreate pending : overBudget) {
+            try {
+                responses[pending.index] = FutureUtils.getUninterruptibly(pending.response);
+            } catch (RuntimeException e) {
+                unexpectedException = e;
+            }
+        }
+        final List<CreateDbSystemResponse> responseList = registerCreatedDbSystems(Arrays.stream(responses)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList()), createException.get());
+
+        if (unexpectedException != null) {
+            throw new ExecutionException("Can't create DbSystems in parallel: " + unexpectedException);
+        }
+        return responseList;
+    }
+
+    private PendingCreate sendCreateDbSystem(int index, CreateDbSystemDetails details, Duration requestTimeout, AtomicBoolean createException) {
+        final CreateDbSystemRequest request = CreateDbSystemRequest.builder()
+            .createDbSystemDetails(details)
+            .build();
+        final Instant deadline = Instant.now().plus(requestTimeout);
+        final CompletableFuture<CreateDbSystemResponse> response = CompletableFuture.supplyAsync(() -> {
+            try {
+                return apiInvoker.invoke(CLIENT, "CreateDbSystem", () -> dbSystemClient.createDbSystem(request));
+            } catch (BmcException e) {
+                log.error("Can't create DbSystem with this request: \n{} \n{}", details, e);
+                createException.set(true);
+                return null;
+            }
+        }, asyncExecutor);
+        return new PendingCreate(index, details, response, deadline);
+    }
+
+    private static final class PendingCreate {
+        private final int index;
+        private final CreateDbSystemDetails details;
+        private final CompletableFuture<CreateDbSystemResponse> response;
+        private final Instant deadline;
+
+        private PendingCreate(int index, CreateDbSystemDetails details, CompletableFuture<CreateDbSystemResponse> response, Instant deadline) {
+            this.index = index;
+            this.details = details;
+            this.response = response;
+            this.deadline = deadline;
+        }
+    }
+
+    private List<CreateDbSystemResponse> registerCreatedDbSystems(List<CreateDbSystemResponse> responseList, boolean createException) {
+        register(responseList.stream()
             .map(CreateDbSystemResponse::getDbSystem)
             .map(DbSystem::getId)
             .collect(Collectors.toList()));
@@ -122,10 +275,96 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
         return createDbSystemResponses;
     }
 
+    /**
+     * Creates a DbSystem without blocking the caller.
+     * @param createDbSystemDetails - DbSystem details
+     * @return a future completed with the DbSystem once Active, failed with {@link com.oci.mds.exception.WaitForStateException}
+     * if it reaches Failed or the create timeout expires
+     */
+    public CompletableFuture<DbSystem> createDbSystemAsync(CreateDbSystemDetails createDbSystemDetails) {
+        return submitAndTrack(() -> createDbSystem(createDbSystemDetails), response -> response.getDbSystem().getId(),
+            response -> findWorkRequestId(response.getDbSystem()), LifecycleState.Active, dbSystemCreateTimeout);
+    }
+
+    /**
+     * Creates the DbSystems without blocking the caller. Unlike {@link #createDbSystems(List)}, every DbSystem
+     * is independent: a failed one does not roll back the others.
+     * @param dbSystemDetailsList - details of the DbSystems to create
+     * @return a future per DbSystem, in the same order as the details
+     */
+    public List<CompletableFuture<DbSystem>> createDbSystemsAsync(List<CreateDbSystemDetails> dbSystemDetailsList) {
+        return dbSystemDetailsList.stream()
+            .map(this::createDbSystemAsync)
+            .collect(Collectors.toList());
+    }
+
+    /* RESTORE Methods */
+
+    /**
+     * Restores the Backup into new DbSystems, all created in parallel and tracked by the shared poller.
+     * Every restore is independent: a failed one does not roll back the others.
+     * @param backup - Backup to restore, must be Active
+     * @param dbSystemDetailsList - details of the DbSystems to create, their source is set to the Backup
+     * @return the report with the time to Active of every restore and the restored GB/min
+     */
+    public RestoreReport restoreDbSystems(Backup backup, List<CreateDbSystemDetails> dbSystemDetailsList) {
+        final CreateDbSystemSourceFromBackupDetails source = CreateDbSystemSourceFromBackupDetails.builder()
+            .backupId(backup.getId())
+            .build();
+        final Instant start = Instant.now();
+
+        final List<CompletableFuture<RestoreReport.Restore>> restores = dbSystemDetailsList.stream()
+            .map(details -> CreateDbSystemDetails.builder().copy(details).source(source).build())
+            .map(this::restoreDbSystemAsync)
+            .collect(Collectors.toList());
+
+        final RestoreReport report = RestoreReport.builder()
+            .backupId(backup.getId())
+            .restoredSizeInGBs(getRestoredSizeInGBs(backup))
+            .restores(restores.stream().map(CompletableFuture::join).collect(Collectors.toList()))
+            .elapsed(Duration.between(start, Instant.now()))
+            .build();
+        log.info(report.render());
+        return report;
+    }
+
+    private static double getRestoredSizeInGBs(Backup backup) {
+        if (backup.getBackupSizeInGBs() != null) {
+            return backup.getBackupSizeInGBs();
+        }
+        return backup.getDataStorageSizeInGBs() != null ? backup.getDataStorageSizeInGBs() : 0;
+    }
+
+    private CompletableFuture<RestoreReport.Restore> restoreDbSystemAsync(CreateDbSystemDetails createDbSystemDetails) {
+        final AtomicReference<Instant> sentAt = new AtomicReference<>(Instant.now());
+        final AtomicReference<String> dbSystemId = new AtomicReference<>();
+
+        return submitAndTrack(() -> {
+                sentAt.set(Instant.now());
+                CreateDbSystemResponse response = createDbSystem(createDbSystemDetails);
+                dbSystemId.set(response.getDbSystem().getId());
+                return response;
+            }, response -> response.getDbSystem().getId(), response -> findWorkRequestId(response.getDbSystem()),
+                LifecycleState.Active, dbSystemCreateTimeout)
+            .handle((dbSystem, throwable) -> {
+                if (throwable != null) {
+                    log.error("Can't restore DbSystem {}: {}", createDbSystemDetails.getDisplayName(), throwable.getMessage());
+                }
+                return RestoreReport.Restore.builder()
+                    .displayName(createDbSystemDetails.getDisplayName())
+                    .dbSystemId(dbSystemId.get())
+                    .timeToActive(Duration.between(sentAt.get(), Instant.now()))
+                    .error(throwable)
+                    .build();
+            });
+    }
+
     /* DELETE Methods */
 
     public DeleteDbSystemResponse deleteDbSystem(DeleteDbSystemRequest deleteDbSystemRequest) {
-        return dbSystemClient.deleteDbSystem(deleteDbSystemRequest);
+        DeleteDbSystemResponse response = apiInvoker.invoke(CLIENT, "DeleteDbSystem", () -> dbSystemClient.deleteDbSystem(deleteDbSystemRequest));
+        snapshotCache.invalidate(deleteDbSystemRequest.getDbSystemId());
+        return response;
     }
 
     public DeleteDbSystemResponse deleteDbSystem(String dbSystemId) {
@@ -143,7 +382,7 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
     }
 
     public void deleteDbSystemsAndWaitForState() {
-        deleteDbSystemAndWaitForState(dbSystemIds);
+        deleteDbSystemAndWaitForState(getRegisteredIds());
     }
 
     public void deleteDbSystemAndWaitForState(String dbSystemId) {
@@ -155,56 +394,114 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
         waitForLifecycle(dbSystemIdList, LifecycleState.Deleted, dbSystemDeleteTimeout);
     }
 
+    public CompletableFuture<DbSystem> deleteDbSystemAsync(String dbSystemId) {
+        return submitAndTrack(() -> deleteDbSystem(dbSystemId), response -> dbSystemId,
+            LifecycleState.Deleted, dbSystemDeleteTimeout);
+    }
+
     public List<DeleteDbSystemResponse> deleteAllDbSystems() {
-        return deleteDbSystem(dbSystemIds);
+        return deleteDbSystem(getRegisteredIds());
     }
 
     public void deleteAllDbSystemsAndWaitForState() {
-        deleteDbSystemAndWaitForState(dbSystemIds);
+        deleteDbSystemAndWaitForState(getRegisteredIds());
     }
 
     /* GET Methods */
 
     public GetDbSystemResponse getDbSystem(GetDbSystemRequest getDbSystemRequest) {
-        return dbSystemClient.getDbSystem(getDbSystemRequest);
+        return apiInvoker.invoke(CLIENT, "GetDbSystem", () -> dbSystemClient.getDbSystem(getDbSystemRequest));
     }
 
+    /**
+     * Gets a DbSystem, accepting a snapshot as old as the configured snapshot max age.
+     */
     public DbSystem getDbSystem(String dbSystemId) {
+        return getDbSystem(dbSystemId, snapshotCache.getDefaultMaxAge());
+    }
+
+    /**
+     * Gets a DbSystem from the shared snapshot cache, or from the service if the snapshot is older than {@code maxAge};
+     * concurrent calls for the same id share a single request, if it was sent at most {@code maxAge} ago.
+     * @param dbSystemId - DbSystem id
+     * @param maxAge - max age of the snapshot, {@link Duration#ZERO} to always get it from the service
+     * @return the DbSystem
+     */
+    public DbSystem getDbSystem(String dbSystemId, Duration maxAge) {
         GetDbSystemRequest getDbSystemRequest = GetDbSystemRequest.builder().dbSystemId(dbSystemId).build();
-        return getDbSystem(getDbSystemRequest).getDbSystem();
+        final Instant sentAfter = Instant.now().minus(maxAge);
+        return snapshotCache.get(dbSystemId, maxAge,
+            () -> getDbSystemFlights.execute(dbSystemId, sentAfter, () -> getDbSystem(getDbSystemRequest).getDbSystem()));
     }
 
     public LifecycleState getLifecycleState(String dbSystemId) {
         return getDbSystem(dbSystemId).getLifecycleState();
     }
 
+    public LifecycleState getLifecycleState(String dbSystemId, Duration maxAge) {
+        return getDbSystem(dbSystemId, maxAge).getLifecycleState();
+    }
+
     public List<DbSystem> getDbSystems() {
-        return dbSystemIds.stream()
-            .map(this::getDbSystem)
+        return getDbSystems(snapshotCache.getDefaultMaxAge());
+    }
+
+    public List<DbSystem> getDbSystems(Duration maxAge) {
+        return getRegisteredIds().stream()
+            .map(id -> getDbSystem(id, maxAge))
             .collect(Collectors.toList());
     }
 
     public List<String> getDbSystemIds() {
-        return new ArrayList<>(dbSystemIds);
+        return getRegisteredIds();
     }
 
     /* LIST Methods */
 
+    /**
+     * Lists every DbSystem of the compartment, following all the pages.
+     */
     public List<DbSystemSummary> listDbSystems(String compartmentId) {
         final ListDbSystemsRequest listDbSystemsRequest = ListDbSystemsRequest.builder()
             .compartmentId(compartmentId).build();
-        final ListDbSystemsResponse dbr = listDbSystems(listDbSystemsRequest);
-        return dbr.getItems();
+        return streamDbSystems(listDbSystemsRequest, true).collect(Collectors.toList());
     }
 
     public ListDbSystemsResponse listDbSystems(ListDbSystemsRequest listDbSystemsRequest) {
-        return dbSystemClient.listDbSystems(listDbSystemsRequest);
+        return apiInvoker.invoke(CLIENT, "ListDbSystems", () -> dbSystemClient.listDbSystems(listDbSystemsRequest));
+    }
+
+    public Stream<DbSystemSummary> streamDbSystems(String compartmentId) {
+        final ListDbSystemsRequest listDbSystemsRequest = ListDbSystemsRequest.builder()
+            .compartmentId(compartmentId).build();
+        return streamDbSystems(listDbSystemsRequest);
+    }
+
+    /**
+     * Streams the DbSystems matching the request, fetching the pages lazily.
+     */
+    public Stream<DbSystemSummary> streamDbSystems(ListDbSystemsRequest listDbSystemsRequest) {
+        return streamDbSystems(listDbSystemsRequest, false);
+    }
+
+    /**
+     * Same as {@link #streamDbSystems(ListDbSystemsRequest)}.
+     * @param prefetch - prefetches the next page in the background, only worth it when the whole list is consumed
+     */
+    public Stream<DbSystemSummary> streamDbSystems(ListDbSystemsRequest listDbSystemsRequest, boolean prefetch) {
+        return PageIterator.stream(
+            page -> listDbSystems(ListDbSystemsRequest.builder().copy(listDbSystemsRequest).page(page).build()),
+            ListDbSystemsResponse::getItems,
+            ListDbSystemsResponse::getOpcNextPage,
+            prefetch);
     }
 
     public Optional<DbSystemSummary> listDbSystem(String compartmentId, String dbSystemId) {
-        return listDbSystems(compartmentId).stream()
-            .filter(db -> db.getId().equals(dbSystemId))
-            .findFirst();
+        try (Stream<DbSystemSummary> dbSystems = streamDbSystems(compartmentId)) {
+            return dbSystems
+                .filter(db -> db.getId().equals(dbSystemId))
+                .findFirst();
+        }
     }
 
     public boolean isDbSystemInCompartmentList(String compartmentId, String dbSystemId) {
@@ -227,7 +524,9 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
                 .dbSystemId(dbSystemId)
                 .stopDbSystemDetails(stopDbSystemDetails)
                 .build();
-        return dbSystemClient.stopDbSystem(dbSystemRequest);
+        StopDbSystemResponse response = apiInvoker.invoke(CLIENT, "StopDbSystem", () -> dbSystemClient.stopDbSystem(dbSystemRequest));
+        snapshotCache.invalidate(dbSystemId);
+        return response;
     }
 
     public List<StopDbSystemResponse> stopDbSystem(List<String> dbSystemIdList, InnoDbShutdownMode shutdownMode) {
@@ -260,12 +559,17 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
         waitForLifecycle(dbSystemIdList, LifecycleState.Inactive, dbSystemUpdatingTimeout);
     }
 
+    public CompletableFuture<DbSystem> stopDbSystemAsync(String dbSystemId, InnoDbShutdownMode shutdownMode) {
+        return submitAndTrack(() -> stopDbSystem(dbSystemId, shutdownMode), response -> dbSystemId,
+            StopDbSystemResponse::getOpcWorkRequestId, LifecycleState.Inactive, dbSystemUpdatingTimeout);
+    }
+
     public List<StopDbSystemResponse> stopAllDbSystems(StopDbSystemDetails stopDbSystemDetails) {
-        return stopDbSystem(dbSystemIds, stopDbSystemDetails);
+        return stopDbSystem(getRegisteredIds(), stopDbSystemDetails);
     }
 
     public void stopAllDbSystemsAndWaitForState(StopDbSystemDetails stopDbSystemDetails) {
-        stopDbSystemAndWaitForState(dbSystemIds, stopDbSystemDetails);
+        stopDbSystemAndWaitForState(getRegisteredIds(), stopDbSystemDetails);
     }
 
     /* START Methods */
@@ -275,7 +579,9 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
             StartDbSystemRequest.builder()
                 .dbSystemId(dbSystemId)
                 .build();
-        return dbSystemClient.startDbSystem(dbSystemRequest);
+        StartDbSystemResponse response = apiInvoker.invoke(CLIENT, "StartDbSystem", () -> dbSystemClient.startDbSystem(dbSystemRequest));
+        snapshotCache.invalidate(dbSystemId);
+        return response;
     }
 
     public List<StartDbSystemResponse> startDbSystem(List<String> dbSystemIdList) {
@@ -293,12 +599,17 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
         waitForLifecycle(dbSystemIdList, LifecycleState.Active, dbSystemUpdatingTimeout);
     }
 
+    public CompletableFuture<DbSystem> startDbSystemAsync(String dbSystemId) {
+        return submitAndTrack(() -> startDbSystem(dbSystemId), response -> dbSystemId,
+            StartDbSystemResponse::getOpcWorkRequestId, LifecycleState.Active, dbSystemUpdatingTimeout);
+    }
+
     public List<StartDbSystemResponse> startAllDbSystems() {
-        return startDbSystem(dbSystemIds);
+        return startDbSystem(getRegisteredIds());
     }
 
     public void startAllDbSystemsAndWaitForState() {
-        startDbSystemAndWaitForState(dbSystemIds);
+        startDbSystemAndWaitForState(getRegisteredIds());
     }
 
     /* RESTART Methods */
@@ -317,7 +628,9 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
                 .dbSystemId(dbSystemId)
                 .restartDbSystemDetails(restartDbSystemDetails)
                 .build();
-        return dbSystemClient.restartDbSystem(dbSystemRequest);
+        RestartDbSystemResponse response = apiInvoker.invoke(CLIENT, "RestartDbSystem", () -> dbSystemClient.restartDbSystem(dbSystemRequest));
+        snapshotCache.invalidate(dbSystemId);
+        return response;
     }
 
     public List<RestartDbSystemResponse> restartDbSystem(List<String> dbSystemIdList, InnoDbShutdownMode shutdownMode) {
@@ -350,12 +663,17 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
         waitForLifecycle(dbSystemIdList, LifecycleState.Active, dbSystemUpdatingTimeout);
     }
 
+    public CompletableFuture<DbSystem> restartDbSystemAsync(String dbSystemId, InnoDbShutdownMode shutdownMode) {
+        return submitAndTrack(() -> restartDbSystem(dbSystemId, shutdownMode), response -> dbSystemId,
+            RestartDbSystemResponse::getOpcWorkRequestId, LifecycleState.Active, dbSystemUpdatingTimeout);
+    }
+
     public List<RestartDbSystemResponse> restartAllDbSystems(RestartDbSystemDetails restartDbSystemDetails) {
-        return restartDbSystem(dbSystemIds, restartDbSystemDetails);
+        return restartDbSystem(getRegisteredIds(), restartDbSystemDetails);
     }
 
     public void restartAllDbSystemsAndWaitForState(RestartDbSystemDetails restartDbSystemDetails) {
-        restartDbSystemAndWaitForState(dbSystemIds, restartDbSystemDetails);
+        restartDbSystemAndWaitForState(getRegisteredIds(), restartDbSystemDetails);
     }
 
     /* UPDATE Methods */
@@ -366,7 +684,9 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
                 .dbSystemId(dbSystemId)
                 .updateDbSystemDetails(updateDbSystemDetails)
                 .build();
-        return dbSystemClient.updateDbSystem(request);
+        UpdateDbSystemResponse response = apiInvoker.invoke(CLIENT, "UpdateDbSystem", () -> dbSystemClient.updateDbSystem(request));
+        snapshotCache.invalidate(dbSystemId);
+        return response;
     }
 
     public List<UpdateDbSystemResponse> updateDbSystem(List<String> dbSystemIdList, UpdateDbSystemDetails updateDbSystemDetails) {
@@ -380,8 +700,35 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
         waitForLifecycle(dbSystemIdList, LifecycleState.Active, dbSystemUpdatingTimeout);
     }
 
+    public CompletableFuture<DbSystem> updateDbSystemAsync(String dbSystemId, UpdateDbSystemDetails updateDbSystemDetails) {
+        return submitAndTrack(() -> updateDbSystem(dbSystemId, updateDbSystemDetails), response -> dbSystemId,
+            UpdateDbSystemResponse::getOpcWorkRequestId, LifecycleState.Active, dbSystemUpdatingTimeout);
+    }
+
+    /**
+     * Tracks the DbSystems until they leave Updating, e.g. a backup or an update started elsewhere, without blocking.
+     * @param dbSystemIds - DbSystem ids
+     * @param timeout - timeout
+     * @return a future per DbSystem id, completed once it is in any state other than Updating
+     */
+    public Map<String, CompletableFuture<DbSystem>> trackWhileUpdating(List<String> dbSystemIds, Duration timeout) {
+        return trackLifecycle(dbSystemIds, NOT_UPDATING_CONDITION, NOT_UPDATING, timeout);
+    }
+
+    /**
+     * The create response doesn't carry the work request id, it is looked up by resource.
+     */
+    private String findWorkRequestId(DbSystem dbSystem) {
+        return config.getWorkRequestTracker().findWorkRequestId(dbSystem.getCompartmentId(), dbSystem.getId()).orElse(null);
+    }
+
     /* Overridden helper methods to be used in 'waitForLifecycle' methods from super class */
 
+    @Override
+    String getResourceType() {
+        return "DbSystem";
+    }
+
     @Override
     String getResourceId(DbSystem resource) {
         return resource.getId();
@@ -389,7 +736,29 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
 
     @Override
     DbSystem getResource(String resourceId) {
-        return getDbSystem(resourceId);
+        return getDbSystem(resourceId, Duration.ZERO);
+    }
+
+    @Override
+    Map<String, LifecycleState> listResourceStates(Collection<String> compartmentIds, Set<String> resourceIds) {
+        Map<String, LifecycleState> states = new HashMap<>();
+        for (String compartmentId : compartmentIds) {
+            try (Stream<DbSystemSummary> dbSystems = streamDbSystems(compartmentId)) {
+                Iterator<DbSystemSummary> summaries = dbSystems
+                    .filter(summary -> resourceIds.contains(summary.getId()))
+                    .iterator();
+                while (states.size() < resourceIds.size() && summaries.hasNext()) {
+                    DbSystemSummary summary = summaries.next();
+                    states.put(summary.getId(), summary.getLifecycleState());
+                }
+            }
+        }
+        return states;
+    }
+
+    @Override
+    String getResourceCompartmentId(DbSystem resource) {
+        return resource.getCompartmentId();
     }
 
     @Override
@@ -411,4 +780,23 @@ public class DbSystemManager extends AbstractManager<DbSystem, LifecycleState> {
     Collection<LifecycleState> getFaultyStates() {
         return Collections.singletonList(LifecycleState.Failed);
     }
+
+    @Override
+    DbSystem waitWithSdkWaiter(String dbSystemId, Collection<LifecycleState> states, TerminationStrategy terminationStrategy) {
+        final GetDbSystemRequest request = GetDbSystemRequest.builder().dbSystemId(dbSystemId).build();
+        try {
+            GetDbSystemResponse response = execute(dbSystemWaiters.forDbSystem(request,
+                terminationStrategy,
+                new ExponentialBackoffDelayStrategy(sdkWaiterMaxDelay.toMillis()),
+                states.toArray(new LifecycleState[0])));
+            return response == null ? null : response.getDbSystem();
+        } catch (BmcException e) {
+            if (e.getStatusCode() == 404 && states.contains(LifecycleState.Deleted)) {
+                return null;
+            }
+            throw e;
+        } finally {
+            snapshotCache.invalidate(dbSystemId);
+        }
+    }
 }
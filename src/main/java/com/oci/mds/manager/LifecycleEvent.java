@@ -0,0 +1,26 @@
+package com.oci.mds.manager;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * A resource observed in a new lifecycle state by the polling.
+ * @param <S> - lifecycle state type
+ */
+@Value
+public class LifecycleEvent<S> {
+
+    /**
+     * "DbSystem" or "Backup".
+     */
+    private String resourceType;
+    private String resourceId;
+
+    /**
+     * State observed before, null if the resource was never observed.
+     */
+    private S oldState;
+    private S newState;
+    private Instant observedAt;
+}
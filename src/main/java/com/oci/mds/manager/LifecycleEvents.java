@@ -0,0 +1,111 @@
+package com.oci.mds.manager;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes the lifecycle transitions observed by the polling of all the managers sharing a configuration.
+ * <p>
+ * Listeners are called on the given executor, never on a polling thread, so they can send requests or block.
+ * Each subscription receives its events one at a time and in the order they were observed.
+ */
+@Slf4j
+public class LifecycleEvents {
+
+    private final Executor executor;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public LifecycleEvents(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @param resourceType - type of the resources, e.g. "DbSystem", null for all types
+     * @param newStates - states of interest, empty for all the transitions
+     * @param listener - listener of the transitions
+     * @return the subscription, to cancel it
+     */
+    public <S> Subscription subscribe(String resourceType, Collection<S> newStates, LifecycleListener<S> listener) {
+        final Subscription subscription = new Subscription(resourceType, new HashSet<>(newStates), listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public <S> Subscription subscribe(String resourceType, LifecycleListener<S> listener) {
+        return subscribe(resourceType, Collections.<S>emptySet(), listener);
+    }
+
+    void publish(LifecycleEvent<?> event) {
+        subscriptions.stream()
+            .filter(subscription -> subscription.accepts(event))
+            .forEach(subscription -> subscription.offer(event));
+    }
+
+    public final class Subscription {
+
+        private final String resourceType;
+        private final Set<?> newStates;
+        private final LifecycleListener<?> listener;
+        private final Queue<LifecycleEvent<?>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private volatile boolean cancelled;
+
+        private Subscription(String resourceType, Set<?> newStates, LifecycleListener<?> listener) {
+            this.resourceType = resourceType;
+            this.newStates = newStates;
+            this.listener = listener;
+        }
+
+        /**
+         * Stops the delivery, the events not delivered yet are dropped.
+         */
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            pending.clear();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private boolean accepts(LifecycleEvent<?> event) {
+            return (resourceType == null || resourceType.equals(event.getResourceType()))
+                && (newStates.isEmpty() || newStates.contains(event.getNewState()));
+        }
+
+        private void offer(LifecycleEvent<?> event) {
+            pending.add(event);
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void drain() {
+            LifecycleEvent<?> event;
+            while (!cancelled && (event = pending.poll()) != null) {
+                try {
+                    ((LifecycleListener<Object>) listener).onTransition((LifecycleEvent<Object>) event);
+                } catch (RuntimeException e) {
+                    log.error("Lifecycle listener failed on {}", event, e);
+                }
+            }
+            draining.set(false);
+            // An event offered after the queue was seen empty, but before the flag was cleared
+            if (!cancelled && !pending.isEmpty() && draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+    }
+}
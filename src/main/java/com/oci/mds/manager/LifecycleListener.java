@@ -0,0 +1,11 @@
+package com.oci.mds.manager;
+
+/**
+ * Receives the lifecycle transitions of the resources, see {@link LifecycleEvents}.
+ * @param <S> - lifecycle state type
+ */
+@FunctionalInterface
+public interface LifecycleListener<S> {
+
+    void onTransition(LifecycleEvent<S> event);
+}
@@ -0,0 +1,143 @@
+package com.oci.mds.manager;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Polling engine shared by all the managers created from the same configuration.
+ * <p>
+ * The resources being waited on are grouped per manager and refreshed in rounds: all the resources due in a round
+ * are fetched concurrently on a bounded pool and the time between rounds is spent in a scheduler, so no caller thread
+ * is kept busy polling and waiting on N resources costs about the same wall-clock time as waiting on one.
+ * How often each resource is polled depends on the {@link PollSchedule} of the transition it is going through.
+ * The polling of a manager is dropped as soon as it has no wait left, so the poller keeps no idle manager.
+ */
+@Slf4j
+public class LifecyclePoller implements AutoCloseable {
+
+    private static final Duration DEFAULT_PROGRESS_SUMMARY_INTERVAL = Duration.ofSeconds(60);
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+    private final PollSchedules pollSchedules;
+    private final Duration progressSummaryInterval;
+    private final Map<AbstractManager<?, ?>, PollLoop<?, ?>> loops = new ConcurrentHashMap<>();
+
+    public LifecyclePoller(int parallelism, PollSchedules pollSchedules) {
+        this(parallelism, pollSchedules, DEFAULT_PROGRESS_SUMMARY_INTERVAL);
+    }
+
+    /**
+     * @param parallelism - max concurrent fetches
+     * @param pollSchedules - poll schedules by transition
+     * @param progressSummaryInterval - min time between two summaries of the waits in progress, per manager
+     */
+    public LifecyclePoller(int parallelism, PollSchedules pollSchedules, Duration progressSummaryInterval) {
+        log.debug("Creating lifecycle poller with parallelism {}", parallelism);
+        this.pollSchedules = pollSchedules;
+        this.progressSummaryInterval = progressSummaryInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory("lifecycle-scheduler-%d"));
+        this.executor = Executors.newFixedThreadPool(parallelism, threadFactory("lifecycle-poller-%d"));
+    }
+
+    /**
+     * Fetches every resource concurrently, limited by the poller parallelism.
+     * @param resourceIds - resource ids
+     * @param fetcher - function fetching a single resource
+     * @return a future per resource id, in the same order as the given ids
+     */
+    public <T> Map<String, CompletableFuture<T>> fetchAll(Collection<String> resourceIds, Function<String, T> fetcher) {
+        Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        resourceIds.forEach(id -> futures.put(id, CompletableFuture.supplyAsync(() -> fetcher.apply(id), executor)));
+        return futures;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public PollSchedules getPollSchedules() {
+        return pollSchedules;
+    }
+
+    Duration getProgressSummaryInterval() {
+        return progressSummaryInterval;
+    }
+
+    ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    <T, S> LifecycleWait<T, S> register(AbstractManager<T, S> manager, List<String> resourceIds, S targetState, Duration timeout) {
+        return register(manager, new LifecycleWait<>(manager, resourceIds, targetState, timeout));
+    }
+
+    <T, S> LifecycleWait<T, S> register(AbstractManager<T, S> manager, List<String> resourceIds, Predicate<S> condition,
+                                        String description, Duration timeout) {
+        return register(manager, new LifecycleWait<>(manager, resourceIds, condition, description, timeout));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T, S> LifecycleWait<T, S> register(AbstractManager<T, S> manager, LifecycleWait<T, S> wait) {
+        if (!wait.isDone()) {
+            // A loop released in between refuses the wait, it is then added to a new loop
+            PollLoop<T, S> loop;
+            do {
+                loop = (PollLoop<T, S>) loops.computeIfAbsent(manager, m -> new PollLoop<>(manager, this));
+            } while (!loop.add(wait));
+        }
+        return wait;
+    }
+
+    /**
+     * Drops the loop of a manager if it has no wait left.
+     */
+    void release(AbstractManager<?, ?> manager, PollLoop<?, ?> loop) {
+        if (loop.retireIfIdle()) {
+            loops.remove(manager, loop);
+        }
+    }
+
+    /**
+     * Fails the waits in progress and stops the polling threads.
+     */
+    @Override
+    public void close() {
+        loops.values().forEach(PollLoop::close);
+        loops.clear();
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Polls the resources of the manager right away if they are being waited on.
+     */
+    void pollNow(AbstractManager<?, ?> manager, Collection<String> resourceIds) {
+        final PollLoop<?, ?> loop = loops.get(manager);
+        if (loop != null) {
+            loop.pollNow(resourceIds);
+        }
+    }
+
+    private static ThreadFactory threadFactory(String nameFormat) {
+        return new ThreadFactoryBuilder()
+            .setNameFormat(nameFormat)
+            .setDaemon(true)
+            .build();
+    }
+}
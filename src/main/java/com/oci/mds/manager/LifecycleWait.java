@@ -0,0 +1,175 @@
+package com.oci.mds.manager;
+
+import com.oci.mds.exception.WaitForStateException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * A single call waiting for a group of resources, tracked by a {@link PollLoop}.
+ * Every resource gets its own future, and the group completes when all of them reach the condition,
+ * or fails as soon as one of them reaches a faulty state or the timeout expires.
+ * <p>
+ * The wait is decided under the monitor of its {@link PollLoop}, but its futures are completed by the loop once the
+ * monitor is released: the stages of the callers run on the completing thread, and may register another wait.
+ */
+class LifecycleWait<T, S> {
+
+    static final String TIMEOUT_MSG = "Timed-out waiting for state %s, ID(s) %s";
+    static final String FAILED_MSG = "Faulty state %s found while waiting for state %s, ID(s) %s";
+
+    private final AbstractManager<T, S> manager;
+    private final List<String> resourceIds;
+    private final Predicate<S> condition;
+    private final String description;
+    private final S targetState;
+    private final Duration timeout;
+    private final Instant startTime;
+    private final Instant deadline;
+    private final Map<String, CompletableFuture<T>> futures;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final Set<String> reachedIds = new HashSet<>();
+    private boolean settled;
+
+    /**
+     * Waits for a target state, recording the time each resource took to reach it.
+     */
+    LifecycleWait(AbstractManager<T, S> manager, List<String> resourceIds, S targetState, Duration timeout) {
+        this(manager, resourceIds, targetState::equals, String.valueOf(targetState), targetState, timeout);
+    }
+
+    /**
+     * Waits for a condition on the state, e.g. any state other than Updating.
+     */
+    LifecycleWait(AbstractManager<T, S> manager, List<String> resourceIds, Predicate<S> condition, String description, Duration timeout) {
+        this(manager, resourceIds, condition, description, null, timeout);
+    }
+
+    private LifecycleWait(AbstractManager<T, S> manager, List<String> resourceIds, Predicate<S> condition, String description,
+                          S targetState, Duration timeout) {
+        this.manager = manager;
+        this.resourceIds = Collections.unmodifiableList(new ArrayList<>(resourceIds));
+        this.condition = condition;
+        this.description = description;
+        this.targetState = targetState;
+        this.timeout = timeout;
+        this.startTime = Instant.now();
+        this.deadline = startTime.plus(timeout);
+
+        Map<String, CompletableFuture<T>> map = new LinkedHashMap<>();
+        this.resourceIds.forEach(id -> map.put(id, new CompletableFuture<>()));
+        this.futures = Collections.unmodifiableMap(map);
+
+        if (this.resourceIds.isEmpty()) {
+            completion.complete(null);
+        }
+    }
+
+    List<String> getResourceIds() {
+        return resourceIds;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    Duration getTimeout() {
+        return timeout;
+    }
+
+    Instant getStartTime() {
+        return startTime;
+    }
+
+    Instant getDeadline() {
+        return deadline;
+    }
+
+    Map<String, CompletableFuture<T>> getFutures() {
+        return futures;
+    }
+
+    CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * @return true once the wait is decided, its futures may still be about to be completed
+     */
+    boolean isDone() {
+        return settled || completion.isDone();
+    }
+
+    /**
+     * Checks the last known state of every pending resource, deciding the ones that reached the condition.
+     * Only the snapshots requested after the start of the wait are checked: an older one may predate the operation
+     * being waited on, e.g. the Active snapshot of a DbSystem about to be restarted.
+     * @param completions - receives the completions of the futures, to run once the loop monitor is released
+     */
+    void evaluate(Collection<Runnable> completions) {
+        if (isDone()) {
+            return;
+        }
+
+        List<T> pending = getPendingIds().stream()
+            .map(id -> manager.getKnownResourceRequestedAfter(id, startTime))
+            .filter(resource -> resource != null)
+            .collect(Collectors.toList());
+
+        List<String> faultyIds = manager.getIdListWithFaultyStates(pending);
+        if (!faultyIds.isEmpty()) {
+            fail(new WaitForStateException(String.format(FAILED_MSG, manager.getFaultyStates(), description, faultyIds)), completions);
+            return;
+        }
+
+        final Duration elapsed = Duration.between(startTime, Instant.now());
+        pending.stream()
+            .filter(resource -> condition.test(manager.getResourceLifeCycleState(resource)))
+            .forEach(resource -> {
+                final CompletableFuture<T> future = futures.get(manager.getResourceId(resource));
+                reachedIds.add(manager.getResourceId(resource));
+                if (targetState != null) {
+                    manager.recordTimeToState(targetState, elapsed);
+                }
+                completions.add(() -> future.complete(resource));
+            });
+
+        if (getPendingIds().isEmpty()) {
+            settled = true;
+            completions.add(() -> completion.complete(null));
+        }
+    }
+
+    void timeout(Collection<Runnable> completions) {
+        fail(new WaitForStateException(String.format(TIMEOUT_MSG, description, getPendingIds()), true), completions);
+    }
+
+    void fail(Throwable throwable, Collection<Runnable> completions) {
+        settled = true;
+        completions.add(() -> {
+            futures.values().forEach(future -> future.completeExceptionally(throwable));
+            completion.completeExceptionally(throwable);
+        });
+    }
+
+    /**
+     * @return the resources neither decided nor completed from outside, e.g. failed by their work request
+     */
+    private List<String> getPendingIds() {
+        return futures.entrySet().stream()
+            .filter(entry -> !reachedIds.contains(entry.getKey()) && !entry.getValue().isDone())
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+}
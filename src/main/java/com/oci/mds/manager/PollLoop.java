@@ -0,0 +1,313 @@
+package com.oci.mds.manager;
+
+import com.oci.mds.util.FutureUtils;
+
+import com.oracle.bmc.model.BmcException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Collectors;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Polling rounds for all the waits registered on one manager.
+ * A resource tracked by several waits is fetched only once per round.
+ * The waits are decided under the monitor of the loop and their futures completed once it is released,
+ * so the stages of the callers never run under the monitor.
+ */
+@Slf4j
+class PollLoop<T, S> {
+
+    private static final int EXCEPTION_LIMIT = 5;
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final AbstractManager<T, S> manager;
+    private final LifecyclePoller poller;
+    private final ProgressReporter<T, S> progressReporter;
+
+    private final List<LifecycleWait<T, S>> waits = new ArrayList<>();
+    private final Map<String, PollState> polls = new HashMap<>();
+    private final List<Runnable> completions = new ArrayList<>();
+    private ScheduledFuture<?> scheduledRound;
+    private boolean running;
+    private boolean retired;
+    private int exceptionLimit;
+
+    PollLoop(AbstractManager<T, S> manager, LifecyclePoller poller) {
+        this.manager = manager;
+        this.poller = poller;
+        this.progressReporter = new ProgressReporter<>(manager, poller.getProgressSummaryInterval());
+    }
+
+    /**
+     * @return false if the loop was retired, the wait must be added to a new loop
+     */
+    synchronized boolean add(LifecycleWait<T, S> wait) {
+        if (retired) {
+            return false;
+        }
+        waits.add(wait);
+        // A new wait usually follows an operation on the resource, so it is polled right away
+        final Instant now = Instant.now();
+        wait.getResourceIds().forEach(id -> {
+            PollState pollState = polls.computeIfAbsent(id, key -> new PollState());
+            pollState.nextPoll = now;
+            pollState.attempt = 0;
+            // The snapshots of a round in progress may predate the operation, another round is needed
+            pollState.pollAgain = running;
+        });
+        if (!running) {
+            schedule(Duration.ZERO);
+        }
+        return true;
+    }
+
+    /**
+     * Polls the resources in the next round, e.g. when their operation is known to be finished.
+     */
+    synchronized void pollNow(Collection<String> resourceIds) {
+        final Instant now = Instant.now();
+        boolean tracked = false;
+        for (String id : resourceIds) {
+            PollState pollState = polls.get(id);
+            if (pollState != null) {
+                pollState.nextPoll = now;
+                pollState.pollAgain = running;
+                tracked = true;
+            }
+        }
+        if (tracked && !running) {
+            schedule(Duration.ZERO);
+        }
+    }
+
+    private void round() {
+        final List<String> dueIds;
+        synchronized (this) {
+            if (running) {
+                // The round in progress schedules the next one when it completes
+                return;
+            }
+            scheduledRound = null;
+            final Instant now = Instant.now();
+            expireWaits(now);
+            if (waits.isEmpty()) {
+                polls.clear();
+                dueIds = null;
+            } else {
+                dueIds = polls.entrySet().stream()
+                    .filter(entry -> !entry.getValue().nextPoll.isAfter(now))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+                if (dueIds.isEmpty()) {
+                    scheduleNext(now);
+                } else {
+                    dueIds.forEach(id -> polls.get(id).pollAgain = false);
+                    running = true;
+                }
+            }
+        }
+        runCompletions();
+        if (dueIds == null) {
+            poller.release(manager, this);
+            return;
+        }
+        if (dueIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            manager.refreshResources(dueIds).whenComplete((resources, throwable) -> onRoundCompleted(dueIds, throwable));
+        } catch (RuntimeException e) {
+            onRoundCompleted(dueIds, e);
+        }
+    }
+
+    /**
+     * Stops accepting waits if none is left.
+     * @return true if the loop is retired
+     */
+    synchronized boolean retireIfIdle() {
+        if (waits.isEmpty() && !running) {
+            retired = true;
+        }
+        return retired;
+    }
+
+    /**
+     * Fails the waits in progress and stops polling.
+     */
+    void close() {
+        synchronized (this) {
+            if (scheduledRound != null) {
+                scheduledRound.cancel(false);
+                scheduledRound = null;
+            }
+            waits.forEach(wait -> wait.fail(new IllegalStateException("Lifecycle poller closed"), completions));
+            waits.clear();
+            polls.clear();
+        }
+        runCompletions();
+    }
+
+    private void onRoundCompleted(List<String> dueIds, Throwable throwable) {
+        final boolean idle = completeRound(dueIds, throwable);
+        runCompletions();
+        if (idle) {
+            poller.release(manager, this);
+        }
+    }
+
+    /**
+     * @return true if no wait is left
+     */
+    private synchronized boolean completeRound(List<String> dueIds, Throwable throwable) {
+        running = false;
+        final Instant now = Instant.now();
+        reschedulePolls(dueIds, throwable == null, now);
+
+        if (throwable != null) {
+            onRoundFailed(throwable);
+        } else {
+            exceptionLimit = 0;
+            waits.forEach(wait -> wait.evaluate(completions));
+            progressReporter.summary(waits, now);
+        }
+
+        expireWaits(now);
+        if (waits.isEmpty()) {
+            polls.clear();
+            return true;
+        }
+        scheduleNext(now);
+        return false;
+    }
+
+    /**
+     * Picks the next poll time of each polled resource from the schedule of its current transition.
+     * The backoff restarts whenever a new state is observed.
+     */
+    private void reschedulePolls(List<String> polledIds, boolean refreshed, Instant now) {
+        final Map<String, List<LifecycleWait<T, S>>> waitsById = new HashMap<>();
+        waits.forEach(wait -> wait.getResourceIds()
+            .forEach(id -> waitsById.computeIfAbsent(id, key -> new ArrayList<>()).add(wait)));
+
+        for (String id : polledIds) {
+            final PollState pollState = polls.get(id);
+            if (pollState == null) {
+                continue;
+            }
+
+            final T resource = manager.getKnownResource(id);
+            final S state = resource == null ? null : manager.getResourceLifeCycleState(resource);
+            if (refreshed && !Objects.equals(state, pollState.lastState)) {
+                progressReporter.transition(id, pollState.lastState, state);
+                pollState.lastState = state;
+                pollState.attempt = 0;
+            } else {
+                pollState.attempt++;
+            }
+
+            Duration delay = null;
+            for (LifecycleWait<T, S> wait : waitsById.getOrDefault(id, Collections.emptyList())) {
+                Duration waitDelay = poller.getPollSchedules()
+                    .get(manager.getResourceType(), pollState.lastState, wait.getDescription())
+                    .nextDelay(pollState.attempt);
+                if (delay == null || waitDelay.compareTo(delay) < 0) {
+                    delay = waitDelay;
+                }
+            }
+            pollState.nextPoll = delay == null || pollState.pollAgain ? now : now.plus(delay);
+            pollState.pollAgain = false;
+        }
+    }
+
+    private void onRoundFailed(Throwable throwable) {
+        final Throwable cause = FutureUtils.unwrap(throwable);
+
+        if (cause instanceof BmcException && ((BmcException) cause).getStatusCode() == TOO_MANY_REQUESTS) {
+            // Throttling is not a failure of the resources, the next round polls them again
+            log.warn("Polling throttled: {}", cause.getMessage());
+        } else if (cause instanceof BmcException) {
+            exceptionLimit++;
+            log.error(String.format("%s - exception limit %d/%d", cause.getMessage(), exceptionLimit, EXCEPTION_LIMIT));
+            if (exceptionLimit >= EXCEPTION_LIMIT) {
+                exceptionLimit = 0;
+                waits.forEach(wait -> wait.timeout(completions));
+            }
+        } else {
+            log.error("Unexpected error while polling resources", cause);
+            waits.forEach(wait -> wait.fail(cause, completions));
+        }
+    }
+
+    private void expireWaits(Instant now) {
+        waits.stream()
+            .filter(wait -> !wait.isDone() && !now.isBefore(wait.getDeadline()))
+            .forEach(wait -> wait.timeout(completions));
+        waits.removeIf(LifecycleWait::isDone);
+
+        Set<String> trackedIds = waits.stream()
+            .flatMap(wait -> wait.getResourceIds().stream())
+            .collect(Collectors.toSet());
+        polls.keySet().retainAll(trackedIds);
+    }
+
+    /**
+     * Completes the futures of the waits decided so far, outside of the monitor.
+     */
+    private void runCompletions() {
+        final List<Runnable> decided;
+        synchronized (this) {
+            if (completions.isEmpty()) {
+                return;
+            }
+            decided = new ArrayList<>(completions);
+            completions.clear();
+        }
+        decided.forEach(Runnable::run);
+    }
+
+    private void scheduleNext(Instant now) {
+        Instant next = null;
+        for (PollState pollState : polls.values()) {
+            if (next == null || pollState.nextPoll.isBefore(next)) {
+                next = pollState.nextPoll;
+            }
+        }
+        for (LifecycleWait<T, S> wait : waits) {
+            if (next == null || wait.getDeadline().isBefore(next)) {
+                next = wait.getDeadline();
+            }
+        }
+        if (next != null) {
+            schedule(now.isBefore(next) ? Duration.between(now, next) : Duration.ZERO);
+        }
+    }
+
+    private void schedule(Duration delay) {
+        if (scheduledRound != null) {
+            scheduledRound.cancel(false);
+        }
+        scheduledRound = poller.getScheduler().schedule(this::round, delay.toMillis(), MILLISECONDS);
+    }
+
+    private class PollState {
+        private Instant nextPoll = Instant.now();
+        private S lastState;
+        private int attempt;
+        private boolean pollAgain;
+    }
+}
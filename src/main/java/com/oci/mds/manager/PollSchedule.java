@@ -0,0 +1,15 @@
+package com.oci.mds.manager;
+
+import java.time.Duration;
+
+/**
+ * Decides how long to wait before polling a resource again.
+ */
+public interface PollSchedule {
+
+    /**
+     * @param attempt - number of polls since the current state was first observed, starting at 0
+     * @return the delay before the next poll
+     */
+    Duration nextDelay(int attempt);
+}
@@ -0,0 +1,52 @@
+package com.oci.mds.manager;
+
+import com.oci.mds.configuration.PollScheduleConfiguration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Poll schedules per lifecycle transition.
+ * <p>
+ * Schedules are keyed by {@code <resource type>:<source state>:<target state>}, e.g. {@code DbSystem:Creating:Active}.
+ * The lookup falls back to {@code <resource type>:*:<target state>} and then to the {@code default} schedule.
+ */
+public class PollSchedules {
+
+    public static final String DEFAULT_KEY = "default";
+    private static final String ANY_STATE = "*";
+
+    private final Map<String, PollSchedule> schedules = new ConcurrentHashMap<>();
+    private volatile PollSchedule defaultSchedule;
+
+    public PollSchedules(Map<String, PollScheduleConfiguration> configurations) {
+        defaultSchedule = new BackoffPollSchedule(new PollScheduleConfiguration());
+        if (configurations != null) {
+            configurations.forEach((key, configuration) -> put(key, new BackoffPollSchedule(configuration)));
+        }
+    }
+
+    public void put(String key, PollSchedule schedule) {
+        if (DEFAULT_KEY.equals(key)) {
+            defaultSchedule = schedule;
+        } else {
+            schedules.put(key, schedule);
+        }
+    }
+
+    public void put(String resourceType, Object sourceState, Object targetState, PollSchedule schedule) {
+        put(key(resourceType, sourceState, targetState), schedule);
+    }
+
+    public PollSchedule get(String resourceType, Object sourceState, Object targetState) {
+        PollSchedule schedule = schedules.get(key(resourceType, sourceState, targetState));
+        if (schedule == null) {
+            schedule = schedules.get(key(resourceType, ANY_STATE, targetState));
+        }
+        return schedule == null ? defaultSchedule : schedule;
+    }
+
+    private static String key(String resourceType, Object sourceState, Object targetState) {
+        return resourceType + ":" + (sourceState == null ? ANY_STATE : sourceState) + ":" + targetState;
+    }
+}
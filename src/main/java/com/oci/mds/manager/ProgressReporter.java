@@ -0,0 +1,82 @@
+package com.oci.mds.manager;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Progress of the waits of a {@link PollLoop}, logged without rendering every resource on every round:
+ * a line per observed state transition, and a summary of the resource count per state
+ * of every pending wait at most once per summary interval.
+ * Nothing is built when the log level is disabled. Not thread-safe, called with the poll loop lock held.
+ */
+@Slf4j
+class ProgressReporter<T, S> {
+
+    private static final String TRANSITION_MESSAGE = "{} {} ({}): {} -> {}";
+    private static final String SUMMARY_MESSAGE = "Waiting to become [{}] ... executed time {} seconds (timeout: {}s): {}";
+
+    private final AbstractManager<T, S> manager;
+    private final Duration summaryInterval;
+    private Instant nextSummary = Instant.MIN;
+
+    ProgressReporter(AbstractManager<T, S> manager, Duration summaryInterval) {
+        this.manager = manager;
+        this.summaryInterval = summaryInterval;
+    }
+
+    /**
+     * Logs a resource moving to a new state.
+     * @param resourceId - resource id
+     * @param previousState - last observed state, null if never observed
+     * @param state - new state
+     */
+    void transition(String resourceId, S previousState, S state) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        final T resource = manager.getKnownResource(resourceId);
+        log.info(TRANSITION_MESSAGE, manager.getResourceType(), resourceId,
+            resource == null ? null : manager.getResourceDisplayName(resource),
+            previousState == null ? "?" : previousState, state);
+    }
+
+    /**
+     * Logs the state counts of the pending waits, if the summary interval elapsed since the last summary.
+     * @param waits - waits of the poll loop
+     * @param now - time of the round
+     */
+    void summary(Collection<LifecycleWait<T, S>> waits, Instant now) {
+        if (!log.isInfoEnabled() || now.isBefore(nextSummary)) {
+            return;
+        }
+        nextSummary = now.plus(summaryInterval);
+
+        final Map<S, Integer> counts = new LinkedHashMap<>();
+        final StringBuilder line = new StringBuilder();
+        for (LifecycleWait<T, S> wait : waits) {
+            if (wait.isDone()) {
+                continue;
+            }
+            counts.clear();
+            for (String id : wait.getResourceIds()) {
+                T resource = manager.getKnownResource(id);
+                counts.merge(resource == null ? null : manager.getResourceLifeCycleState(resource), 1, Integer::sum);
+            }
+
+            line.setLength(0);
+            counts.forEach((state, count) -> {
+                if (line.length() > 0) {
+                    line.append(", ");
+                }
+                line.append(count).append(' ').append(state == null ? "Unknown" : state);
+            });
+            log.info(SUMMARY_MESSAGE, wait.getDescription(), Duration.between(wait.getStartTime(), now).getSeconds(),
+                wait.getTimeout().getSeconds(), line.toString());
+        }
+    }
+}
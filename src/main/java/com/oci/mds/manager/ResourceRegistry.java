@@ -0,0 +1,187 @@
+package com.oci.mds.manager;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Thread-safe registry of the resources known by a manager, with their last known state and timestamps.
+ * <p>
+ * Two kinds of ids are kept: the ones {@link #register(String) registered} by the manager (the resources it created,
+ * in creation order) and the ones only {@link #observe(String, Object, Object) observed} while polling.
+ * Lookups never block; an update only locks its own entry, while keeping a per-state index
+ * so "ids in state X" queries don't scan the whole registry.
+ * @param <T> - resource type
+ * @param <S> - lifecycle state type
+ */
+public class ResourceRegistry<T, S> {
+
+    private final Map<String, Entry<T, S>> entries = new ConcurrentHashMap<>();
+    private final Map<S, Set<String>> idsByState = new ConcurrentHashMap<>();
+    private final Collection<String> registrationOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Registers a resource created by the manager, its state being unknown until it is observed.
+     * @param resourceId - resource id
+     * @return false if the resource was already registered
+     */
+    public boolean register(String resourceId) {
+        final boolean[] registered = {false};
+        entries.compute(resourceId, (id, entry) -> {
+            if (entry != null && entry.isRegistered()) {
+                return entry;
+            }
+            registered[0] = true;
+            final Instant now = Instant.now();
+            return entry == null
+                ? new Entry<>(id, null, null, true, now, now)
+                : new Entry<>(id, entry.getResource(), entry.getState(), true, now, entry.getObservedAt());
+        });
+        if (registered[0]) {
+            registrationOrder.add(resourceId);
+        }
+        return registered[0];
+    }
+
+    public void register(Collection<String> resourceIds) {
+        resourceIds.forEach(this::register);
+    }
+
+    /**
+     * Keeps the last observed snapshot and state of a resource.
+     * @param resourceId - resource id
+     * @param resource - resource snapshot
+     * @param state - lifecycle state of the snapshot
+     * @return the state observed before, null if the resource was never observed
+     */
+    public S observe(String resourceId, T resource, S state) {
+        return observe(resourceId, resource, state, Instant.now());
+    }
+
+    /**
+     * Same as {@link #observe(String, Object, Object)}, for a snapshot requested at a given time.
+     * @param requestedAt - time the request returning the snapshot was sent, kept as its observation time
+     */
+    public S observe(String resourceId, T resource, S state, Instant requestedAt) {
+        final List<S> previous = new ArrayList<>(1);
+        entries.compute(resourceId, (id, entry) -> {
+            final S previousState = entry == null ? null : entry.getState();
+            if (entry != null && entry.getResource() != null && entry.getObservedAt().isAfter(requestedAt)) {
+                // A newer snapshot was already kept
+                previous.add(state);
+                return entry;
+            }
+            previous.add(previousState);
+            if (!Objects.equals(previousState, state)) {
+                if (previousState != null) {
+                    idsByState.getOrDefault(previousState, Collections.emptySet()).remove(id);
+                }
+                if (state != null) {
+                    idsByState.computeIfAbsent(state, key -> ConcurrentHashMap.newKeySet()).add(id);
+                }
+            }
+            return entry == null
+                ? new Entry<>(id, resource, state, false, requestedAt, requestedAt)
+                : new Entry<>(id, resource, state, entry.isRegistered(), entry.getRegisteredAt(), requestedAt);
+        });
+        return previous.get(0);
+    }
+
+    /**
+     * Confirms the last observed snapshot of a resource by a state seen elsewhere (e.g. in a listing), moving its
+     * observation time forward while keeping the snapshot itself.
+     * @param resourceId - resource id
+     * @param state - lifecycle state seen for the resource
+     * @param requestedAt - time the request returning the state was sent
+     * @return the kept snapshot, null if the resource was never observed or was last observed in another state,
+     * in which case nothing is changed and the snapshot must be fetched again
+     */
+    public T confirm(String resourceId, S state, Instant requestedAt) {
+        final Entry<T, S> confirmed = entries.computeIfPresent(resourceId, (id, entry) -> {
+            if (entry.getResource() == null || !Objects.equals(entry.getState(), state)
+                || !requestedAt.isAfter(entry.getObservedAt())) {
+                return entry;
+            }
+            return new Entry<>(id, entry.getResource(), state, entry.isRegistered(), entry.getRegisteredAt(), requestedAt);
+        });
+        return confirmed == null || !Objects.equals(confirmed.getState(), state) ? null : confirmed.getResource();
+    }
+
+    public Optional<Entry<T, S>> get(String resourceId) {
+        return Optional.ofNullable(entries.get(resourceId));
+    }
+
+    /**
+     * @return the last observed snapshot of the resource, null if never observed
+     */
+    public T getResource(String resourceId) {
+        final Entry<T, S> entry = entries.get(resourceId);
+        return entry == null ? null : entry.getResource();
+    }
+
+    /**
+     * @return the last observed snapshots of all the resources, registered or not
+     */
+    public List<T> getResources() {
+        return entries.values().stream()
+            .map(Entry::getResource)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the registered ids, in registration order
+     */
+    public List<String> getRegisteredIds() {
+        return registrationOrder.stream().collect(Collectors.toList());
+    }
+
+    /**
+     * @return the ids, registered or not, last observed in the given state
+     */
+    public Set<String> getIdsInState(S state) {
+        return new HashSet<>(idsByState.getOrDefault(state, Collections.emptySet()));
+    }
+
+    /**
+     * @return the registered ids not last observed in any of the given states, including the ones never observed,
+     * in registration order
+     */
+    public List<String> getRegisteredIdsNotInStates(Collection<S> states) {
+        final Set<String> excluded = new HashSet<>();
+        states.forEach(state -> excluded.addAll(idsByState.getOrDefault(state, Collections.emptySet())));
+        return registrationOrder.stream()
+            .filter(id -> !excluded.contains(id))
+            .collect(Collectors.toList());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Value
+    public static class Entry<T, S> {
+        private String id;
+        private T resource;
+        private S state;
+        private boolean registered;
+        private Instant registeredAt;
+
+        /**
+         * Time the request returning the snapshot was sent: the snapshot reflects no operation sent after it.
+         */
+        private Instant observedAt;
+    }
+}
@@ -0,0 +1,79 @@
+package com.oci.mds.manager;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Outcome of the DbSystems restored from a Backup: time to Active of every restore and the restore throughput.
+ */
+@Value
+@Builder
+public class RestoreReport {
+
+    private static final String HEADER_FORMAT = "| %-40s | %-10s | %10s | %8s %n";
+    private static final String LINE_FORMAT = "| %-40s | %-10s | %9ds | %8.2f %n";
+
+    private String backupId;
+
+    /**
+     * Size of the data restored by every DbSystem.
+     */
+    private double restoredSizeInGBs;
+
+    /**
+     * Wall clock time from the first restore request until the last DbSystem is Active or failed.
+     */
+    private Duration elapsed;
+
+    private List<Restore> restores;
+
+    public List<Restore> getSucceeded() {
+        return restores.stream().filter(Restore::isSucceeded).collect(Collectors.toList());
+    }
+
+    /**
+     * @return GBs restored per minute by all the succeeded restores together
+     */
+    public double getGBsPerMinute() {
+        return gbsPerMinute(restoredSizeInGBs * getSucceeded().size(), elapsed);
+    }
+
+    public String render() {
+        final StringBuilder table = new StringBuilder(String.format("Restore of Backup %s (%.1f GB):%n", backupId, restoredSizeInGBs));
+        table.append(String.format(HEADER_FORMAT, "DbSystem", "Result", "To Active", "GB/min"));
+        restores.forEach(restore -> table.append(String.format(LINE_FORMAT,
+            Objects.toString(restore.getDbSystemId(), restore.getDisplayName()),
+            restore.isSucceeded() ? "Active" : "Failed",
+            restore.getTimeToActive().getSeconds(),
+            restore.isSucceeded() ? gbsPerMinute(restoredSizeInGBs, restore.getTimeToActive()) : 0)));
+        table.append(String.format("| %d of %d restored in %ds, %.2f GB/min overall",
+            getSucceeded().size(), restores.size(), elapsed.getSeconds(), getGBsPerMinute()));
+        return table.toString();
+    }
+
+    private static double gbsPerMinute(double sizeInGBs, Duration elapsed) {
+        return elapsed.isZero() ? 0 : sizeInGBs * 60000 / elapsed.toMillis();
+    }
+
+    @Value
+    @Builder
+    public static class Restore {
+        private String displayName;
+        private String dbSystemId;
+
+        /**
+         * Time from the create request until the DbSystem is Active, or until it failed.
+         */
+        private Duration timeToActive;
+        private Throwable error;
+
+        public boolean isSucceeded() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.oci.mds.manager;
+
+/**
+ * How a manager waits for its resources to reach a lifecycle state.
+ */
+public enum WaitStrategy {
+
+    /**
+     * Rounds of the shared {@link LifecyclePoller}, with a poll schedule per transition and bulk refreshes.
+     */
+    POLLER,
+
+    /**
+     * A waiter of the SDK per resource, blocking a thread of the shared bounded waiter executor while it polls
+     * with exponential backoff. Waits on a condition other than a target state still use the poller.
+     * A wait on several resources fails as soon as one of them fails, cancelling the other waiters.
+     */
+    SDK_WAITER
+}
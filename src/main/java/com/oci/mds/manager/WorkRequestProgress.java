@@ -0,0 +1,44 @@
+package com.oci.mds.manager;
+
+import com.oracle.bmc.mysql.model.WorkRequestOperationStatus;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Last known progress of a work request followed by the {@link WorkRequestTracker}.
+ */
+@Value
+@Builder(toBuilder = true)
+public class WorkRequestProgress {
+
+    private String workRequestId;
+    private String operationType;
+    private WorkRequestOperationStatus status;
+    private float percentComplete;
+    private Instant timeStarted;
+
+    /**
+     * Extrapolated from the time spent so far and the percent complete, null until the work request progressed.
+     */
+    private Duration estimatedRemaining;
+
+    /**
+     * Error entries of a Failed work request, as "code: message".
+     */
+    @Builder.Default
+    private List<String> errors = Collections.emptyList();
+
+    public boolean isFinished() {
+        return status == WorkRequestOperationStatus.Succeeded || isFailed();
+    }
+
+    public boolean isFailed() {
+        return status == WorkRequestOperationStatus.Failed || status == WorkRequestOperationStatus.Canceled;
+    }
+}
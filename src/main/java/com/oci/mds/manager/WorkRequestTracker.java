@@ -0,0 +1,215 @@
+package com.oci.mds.manager;
+
+import com.oci.mds.util.ApiInvoker;
+import com.oci.mds.util.PageIterator;
+
+import com.oracle.bmc.model.BmcException;
+import com.oracle.bmc.mysql.WorkRequestsClient;
+import com.oracle.bmc.mysql.model.WorkRequest;
+import com.oracle.bmc.mysql.model.WorkRequestSummary;
+import com.oracle.bmc.mysql.requests.GetWorkRequestRequest;
+import com.oracle.bmc.mysql.requests.ListWorkRequestErrorsRequest;
+import com.oracle.bmc.mysql.requests.ListWorkRequestsRequest;
+import com.oracle.bmc.mysql.responses.ListWorkRequestsResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Follows the work requests of the long-running operations through the MySQL work requests API, exposing their
+ * percent complete, estimated remaining time and error entries.
+ * <p>
+ * The work requests are polled on the scheduler and pool of the shared {@link LifecyclePoller}, every poll interval.
+ * A Failed work request is known long before its resource reaches a faulty state, if it ever does.
+ */
+@Slf4j
+public class WorkRequestTracker {
+
+    private static final String CLIENT = "WorkRequests";
+    private static final int ERROR_LIMIT = 5;
+    private static final int LOOKUP_PAGE_SIZE = 50;
+    private static final int LOOKUP_PAGE_LIMIT = 2;
+
+    private final WorkRequestsClient workRequestsClient;
+    private final ApiInvoker apiInvoker;
+    private final LifecyclePoller poller;
+    private final Duration pollInterval;
+    private final Map<String, WorkRequestProgress> progress = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<WorkRequestProgress>> tracked = new ConcurrentHashMap<>();
+
+    public WorkRequestTracker(WorkRequestsClient workRequestsClient, ApiInvoker apiInvoker, LifecyclePoller poller, Duration pollInterval) {
+        this.workRequestsClient = workRequestsClient;
+        this.apiInvoker = apiInvoker;
+        this.poller = poller;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Starts following a work request, once per id.
+     * @param workRequestId - work request id, e.g. the opc-work-request-id of a response
+     * @return a future completed with the final progress once the work request Succeeded, Failed or was Canceled;
+     * it fails if the work request can't be read, or can't be polled once the lifecycle poller is closed
+     */
+    public CompletableFuture<WorkRequestProgress> track(String workRequestId) {
+        final CompletableFuture<WorkRequestProgress> future = new CompletableFuture<>();
+        final CompletableFuture<WorkRequestProgress> existing = tracked.putIfAbsent(workRequestId, future);
+        if (existing != null) {
+            return existing;
+        }
+        // The final progress is the result of the future, nothing is kept once it completes
+        future.whenComplete((result, throwable) -> {
+            tracked.remove(workRequestId, future);
+            progress.remove(workRequestId);
+        });
+        schedule(workRequestId, future, 0, Duration.ZERO);
+        return future;
+    }
+
+    /**
+     * @return the last progress of a work request still followed
+     */
+    public Optional<WorkRequestProgress> getProgress(String workRequestId) {
+        return Optional.ofNullable(progress.get(workRequestId));
+    }
+
+    /**
+     * @return the progress of the work requests still followed
+     */
+    public Collection<WorkRequestProgress> getProgress() {
+        return tracked.keySet().stream()
+            .map(progress::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Finds the work request of an operation whose response doesn't carry its id, e.g. a create.
+     * Only the most recently accepted work requests of the compartment are searched, at most
+     * {@value #LOOKUP_PAGE_LIMIT} pages, since the operation was just sent.
+     * @param compartmentId - compartment of the resource
+     * @param resourceId - resource id
+     * @return the id of the most recently accepted work request acting on the resource
+     */
+    public Optional<String> findWorkRequestId(String compartmentId, String resourceId) {
+        final ListWorkRequestsRequest listRequest = ListWorkRequestsRequest.builder()
+            .compartmentId(compartmentId)
+            .sortBy(ListWorkRequestsRequest.SortBy.TimeAccepted)
+            .sortOrder(ListWorkRequestsRequest.SortOrder.Desc)
+            .limit(LOOKUP_PAGE_SIZE)
+            .build();
+        try (Stream<WorkRequestSummary> workRequests = PageIterator.stream(
+                page -> apiInvoker.invoke(CLIENT, "ListWorkRequests", () -> workRequestsClient.listWorkRequests(
+                    ListWorkRequestsRequest.builder().copy(listRequest).page(page).build())),
+                ListWorkRequestsResponse::getItems,
+                ListWorkRequestsResponse::getOpcNextPage)) {
+            return workRequests
+                .limit(LOOKUP_PAGE_SIZE * LOOKUP_PAGE_LIMIT)
+                .filter(summary -> summary.getResources() != null && summary.getResources().stream()
+                    .anyMatch(resource -> resourceId.equals(resource.getIdentifier())))
+                .findFirst()
+                .map(WorkRequestSummary::getId);
+        }
+    }
+
+    private void schedule(String workRequestId, CompletableFuture<WorkRequestProgress> future, int errorCount, Duration delay) {
+        try {
+            poller.getScheduler().schedule(() -> {
+                try {
+                    poller.getExecutor().execute(() -> poll(workRequestId, future, errorCount));
+                } catch (RejectedExecutionException e) {
+                    future.completeExceptionally(e);
+                }
+            }, delay.toMillis(), MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private void poll(String workRequestId, CompletableFuture<WorkRequestProgress> future, int errorCount) {
+        if (future.isDone()) {
+            // Cancelled by the caller
+            return;
+        }
+        final WorkRequestProgress current;
+        try {
+            WorkRequest workRequest = apiInvoker.invoke(CLIENT, "GetWorkRequest", () -> workRequestsClient.getWorkRequest(
+                GetWorkRequestRequest.builder().workRequestId(workRequestId).build())).getWorkRequest();
+            current = toProgress(workRequest);
+        } catch (BmcException e) {
+            if (e.getStatusCode() == 404 || errorCount + 1 >= ERROR_LIMIT) {
+                future.completeExceptionally(e);
+            } else {
+                schedule(workRequestId, future, errorCount + 1, pollInterval);
+            }
+            return;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            return;
+        }
+
+        final WorkRequestProgress previous = progress.put(workRequestId, current);
+        if (previous == null || previous.getPercentComplete() != current.getPercentComplete() || previous.getStatus() != current.getStatus()) {
+            log.debug("Work request {} {} {}: {}% complete{}", workRequestId, current.getOperationType(), current.getStatus(),
+                current.getPercentComplete(),
+                current.getEstimatedRemaining() == null ? "" : ", about " + current.getEstimatedRemaining().getSeconds() + "s left");
+        }
+
+        if (!current.isFinished()) {
+            schedule(workRequestId, future, 0, pollInterval);
+        } else if (current.isFailed()) {
+            WorkRequestProgress failed = current.toBuilder().errors(listErrors(workRequestId)).build();
+            log.warn("Work request {} {} {}: {}", workRequestId, failed.getOperationType(), failed.getStatus(), failed.getErrors());
+            future.complete(failed);
+        } else {
+            future.complete(current);
+        }
+    }
+
+    private List<String> listErrors(String workRequestId) {
+        try {
+            return apiInvoker.invoke(CLIENT, "ListWorkRequestErrors", () -> workRequestsClient.listWorkRequestErrors(
+                    ListWorkRequestErrorsRequest.builder().workRequestId(workRequestId).build()))
+                .getItems().stream()
+                .map(error -> error.getCode() + ": " + error.getMessage())
+                .collect(Collectors.toList());
+        } catch (BmcException e) {
+            log.debug("Can't list the errors of work request {}: {}", workRequestId, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private static WorkRequestProgress toProgress(WorkRequest workRequest) {
+        final float percentComplete = workRequest.getPercentComplete() == null ? 0 : workRequest.getPercentComplete();
+        final Instant timeStarted = workRequest.getTimeStarted() == null ? null : workRequest.getTimeStarted().toInstant();
+
+        Duration estimatedRemaining = null;
+        if (timeStarted != null && percentComplete > 0 && percentComplete < 100) {
+            long elapsedMillis = Duration.between(timeStarted, Instant.now()).toMillis();
+            estimatedRemaining = Duration.ofMillis((long) (elapsedMillis * (100 - percentComplete) / percentComplete));
+        }
+
+        return WorkRequestProgress.builder()
+            .workRequestId(workRequest.getId())
+            .operationType(String.valueOf(workRequest.getOperationType()))
+            .status(workRequest.getStatus())
+            .percentComplete(percentComplete)
+            .timeStarted(timeStarted)
+            .estimatedRemaining(estimatedRemaining)
+            .build();
+    }
+}
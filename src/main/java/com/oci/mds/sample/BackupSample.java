@@ -2,22 +2,31 @@ package com.oci.mds.sample;
 
 import com.oci.mds.configuration.ProjectConfiguration;
 import com.oci.mds.exception.WaitForStateException;
+import com.oci.mds.manager.BackupOrchestrator;
 import com.oci.mds.manager.DbSystemDetailsSetup;
+import com.oci.mds.manager.RestoreReport;
 
 import com.oracle.bmc.mysql.model.Backup;
 import com.oracle.bmc.mysql.model.CreateBackupDetails;
 import com.oracle.bmc.mysql.model.CreateDbSystemDetails;
+import com.oracle.bmc.mysql.model.CreateDbSystemSourceFromBackupDetails;
 import com.oracle.bmc.mysql.model.DbSystem;
-import com.oracle.bmc.mysql.responses.CreateBackupResponse;
 import com.oracle.bmc.mysql.responses.CreateDbSystemResponse;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 @Slf4j
 public class BackupSample extends BaseSample {
 
     private String dbSystemId;
     private String backupId;
+    private List<String> restoredDbSystemIds = Collections.emptyList();
 
     public BackupSample(ProjectConfiguration config) {
         super(config);
@@ -26,7 +35,7 @@ public class BackupSample extends BaseSample {
     public void run() {
         createDbSystem();
         createBackup();
-        //restoreDbSystem();
+        restoreDbSystem();
         delete();
     }
 
@@ -51,7 +60,8 @@ public class BackupSample extends BaseSample {
 
     private void createBackup() {
         if (dbSystemId == null) {
-            log.warn("DbSystemId is null, skipping the restore method.");
+            log.warn("DbSystemId is null, skipping the backup method.");
+            return;
         }
 
         String displayName = "OCI-MDS.BackupSample" + "." + System.currentTimeMillis() + ".Backup";
@@ -64,24 +74,50 @@ public class BackupSample extends BaseSample {
             .dbSystemId(dbSystemId)
             .build();
 
-        try {
+        // The orchestrator retries a failed backup, deleting the Backup of the failed attempt
+        try (BackupOrchestrator backupOrchestrator = new BackupOrchestrator(config, dbSystemManager, dbBackupsManager)) {
             log.info("Creating Backup");
-            final CreateBackupResponse backupDbSysResp = dbBackupsManager.backupDbSystemAndWaitForState(createBackupDetails);
-            Backup backup = backupDbSysResp.getBackup();
-            backupId = backup.getId();
-
-        } catch (WaitForStateException e) {
-            String errorMsg = "Exception while creating backup";
-            log.error(errorMsg, e);
+            BackupOrchestrator.BackupResult result = backupOrchestrator.backupAll(Collections.singletonList(createBackupDetails)).get(0);
+            if (result.isSucceeded()) {
+                backupId = result.getBackupId();
+            } else {
+                log.error("Exception while creating backup", result.getError());
+            }
         }
     }
 
-    // TODO: Restore process
     private void restoreDbSystem() {
+        if (backupId == null) {
+            log.warn("BackupId is null, skipping the restore method.");
+            return;
+        }
 
+        String displayName = "OCI-MDS.BackupSample" + "." + System.currentTimeMillis() + ".Restored";
+        DbSystemDetailsSetup dbSystemDetailsSetup = DbSystemDetailsSetup.builder(config, displayName)
+            .sourceDetails(CreateDbSystemSourceFromBackupDetails.builder().backupId(backupId).build())
+            .build();
+
+        log.info("Restoring {} DbSystem(s) from Backup", config.getRestoreDbSystemCount());
+        Backup backup = dbBackupsManager.getDbBackup(backupId, Duration.ZERO);
+        RestoreReport report = dbSystemManager.restoreDbSystems(backup,
+            dbSystemDetailsSetup.createDbSystemDetailsList(config.getRestoreDbSystemCount()));
+
+        restoredDbSystemIds = report.getRestores().stream()
+            .map(RestoreReport.Restore::getDbSystemId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
     }
 
     private void delete() {
+        if (!restoredDbSystemIds.isEmpty()) {
+            try {
+                log.info("Deleting restored DbSystem(s)");
+                dbSystemManager.deleteDbSystemAndWaitForState(restoredDbSystemIds);
+            } catch (WaitForStateException e) {
+                log.error("Exception while deleting restored DbSystems " + restoredDbSystemIds, e);
+            }
+        }
+
         if (dbSystemId == null) {
             log.warn("DbSystemId is null, skipping the delete method.");
         } else {
@@ -3,7 +3,6 @@ package com.oci.mds.sample;
 import com.oci.mds.configuration.ProjectConfiguration;
 import com.oci.mds.manager.DbBackupsManager;
 import com.oci.mds.manager.DbSystemManager;
-import com.oci.mds.util.OciUtils;
 import com.oci.mds.util.ShutDownHook;
 
 import java.time.Duration;
@@ -15,8 +14,6 @@ public abstract class BaseSample {
     DbSystemManager dbSystemManager;
     DbBackupsManager dbBackupsManager;
 
-    private String mysqlClientEndpoint;
-
     Duration dbSystemCreateTimeout;
     Duration dbSystemDeleteTimeout;
     Duration dbSystemUpdatingTimeout;
@@ -29,6 +26,9 @@ public abstract class BaseSample {
     }
 
     private void setup() {
+        // Clients, availability domain and configuration lookup, in parallel
+        new SampleBootstrap(config).run();
+
         dbSystemManager = new DbSystemManager(config);
         dbBackupsManager = new DbBackupsManager(config);
 
@@ -37,21 +37,6 @@ public abstract class BaseSample {
             .dbBackupsManager(dbBackupsManager)
             .build());
 
-        OciUtils ociUtils = new OciUtils(config);
-
-        // Set availability Domain based on configuration.
-        config.setAvailabilityDomain(
-            config.getLogicalADName() != null
-                ? config.getLogicalADName() : ociUtils.getConfiguredAvailabilityDomain());
-
-        mysqlClientEndpoint = config.getMysqlClientEndpoint();
-
-        if (!mysqlClientEndpoint.isEmpty()) {
-            config.getDbBackupsClient().setEndpoint(mysqlClientEndpoint);
-            config.getDbSystemClient().setEndpoint(mysqlClientEndpoint);
-            config.getMysqlaasClient().setEndpoint(mysqlClientEndpoint);
-        }
-
         initTimeouts();
     }
 
@@ -0,0 +1,200 @@
+package com.oci.mds.sample;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import com.oci.mds.configuration.LoadTestConfiguration;
+import com.oci.mds.configuration.ProjectConfiguration;
+import com.oci.mds.exception.ExecutionException;
+import com.oci.mds.manager.DbSystemDetailsSetup;
+import com.oci.mds.util.LatencyRecorder;
+
+import com.oracle.bmc.mysql.model.Backup;
+import com.oracle.bmc.mysql.model.CreateBackupDetails;
+import com.oracle.bmc.mysql.model.DbSystem;
+import com.oracle.bmc.mysql.model.InnoDbShutdownMode;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Runs the DbSystem and Backup lifecycles concurrently, for a number of iterations or a duration,
+ * then reports the ops/sec and latency percentiles of every API call ("api.*"), lifecycle transition
+ * ("lifecycle.*") and scenario ("scenario.*") and writes them to an HDR histogram log.
+ */
+@Slf4j
+public class LoadTestSample extends BaseSample {
+
+    private static final String DBSYSTEM_SCENARIO = "DBSYSTEM";
+    private static final String BACKUP_SCENARIO = "BACKUP";
+
+    private final LoadTestConfiguration loadTest;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final AtomicInteger started = new AtomicInteger();
+    private final String displayNamePrefix = "OCI-MDS.LoadTest." + System.currentTimeMillis();
+
+    public LoadTestSample(ProjectConfiguration config) {
+        super(config);
+        this.loadTest = config.getLoadTest();
+    }
+
+    public void run() {
+        final List<String> scenarios = loadTest.getScenarios().stream()
+            .map(String::toUpperCase)
+            .collect(Collectors.toList());
+        scenarios.stream()
+            .filter(scenario -> !DBSYSTEM_SCENARIO.equals(scenario) && !BACKUP_SCENARIO.equals(scenario))
+            .findFirst()
+            .ifPresent(scenario -> {
+                throw new ExecutionException("Unknown load test scenario: " + scenario);
+            });
+        if (scenarios.isEmpty()) {
+            throw new ExecutionException("No load test scenario configured");
+        }
+
+        final Instant start = Instant.now();
+        final Instant deadline = loadTest.getDurationInSeconds() > 0 ? start.plusSeconds(loadTest.getDurationInSeconds()) : null;
+        log.info("Load test: {} concurrent worker(s), {}, scenarios {}", loadTest.getConcurrency(),
+            deadline == null ? loadTest.getIterations() + " scenario(s)" : loadTest.getDurationInSeconds() + "s", scenarios);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(loadTest.getConcurrency(),
+            new ThreadFactoryBuilder().setNameFormat("loadtest-%d").setDaemon(true).build());
+        config.getApiInvoker().setLatencyRecorder(recorder);
+        try {
+            final CompletableFuture<?>[] workers = IntStream.range(0, loadTest.getConcurrency())
+                .mapToObj(worker -> CompletableFuture.runAsync(() -> runWorker(scenarios, deadline), executor))
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(workers).join();
+        } finally {
+            config.getApiInvoker().setLatencyRecorder(null);
+            executor.shutdown();
+        }
+
+        final Duration elapsed = Duration.between(start, Instant.now());
+        log.info("Load test done in {}s:\n{}", elapsed.getSeconds(), recorder.render(elapsed));
+        writeHistogramLog();
+    }
+
+    private void runWorker(List<String> scenarios, Instant deadline) {
+        while (true) {
+            final int iteration = started.getAndIncrement();
+            if (deadline == null ? iteration >= loadTest.getIterations() : Instant.now().isAfter(deadline)) {
+                return;
+            }
+            final String scenario = scenarios.get(iteration % scenarios.size());
+            final String displayName = displayNamePrefix + "." + iteration;
+            try {
+                if (DBSYSTEM_SCENARIO.equals(scenario)) {
+                    timed("scenario.DbSystem", () -> runDbSystemScenario(displayName));
+                } else {
+                    timed("scenario.Backup", () -> runBackupScenario(displayName));
+                }
+            } catch (RuntimeException e) {
+                log.error("Load test scenario {} {} failed: {}", scenario, displayName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Create, stop, start and delete a DbSystem.
+     */
+    private Void runDbSystemScenario(String displayName) {
+        final String dbSystemId = createDbSystem(displayName);
+        try {
+            timed("lifecycle.DbSystem.Stop", () -> {
+                dbSystemManager.stopDbSystemAndWaitForState(dbSystemId, InnoDbShutdownMode.Fast);
+                return null;
+            });
+            timed("lifecycle.DbSystem.Start", () -> {
+                dbSystemManager.startDbSystemAndWaitForState(dbSystemId);
+                return null;
+            });
+        } finally {
+            deleteDbSystem(dbSystemId);
+        }
+        return null;
+    }
+
+    /**
+     * Create a DbSystem, back it up, delete the Backup and the DbSystem.
+     */
+    private Void runBackupScenario(String displayName) {
+        final String dbSystemId = createDbSystem(displayName);
+        try {
+            final String backupId = timed("lifecycle.Backup.Create", () -> {
+                String id = dbBackupsManager.backupDbSystem(CreateBackupDetails.builder()
+                    .backupType(CreateBackupDetails.BackupType.Full)
+                    .displayName(displayName + ".Backup")
+                    .retentionInDays(1)
+                    .dbSystemId(dbSystemId)
+                    .build()).getBackup().getId();
+                dbBackupsManager.waitForLifecycle(id, Backup.LifecycleState.Active, backupCreateTimeout);
+                return id;
+            });
+            timed("lifecycle.Backup.Delete", () -> {
+                dbBackupsManager.deleteDbBackupAndWaitForState(backupId);
+                return null;
+            });
+        } finally {
+            deleteDbSystem(dbSystemId);
+        }
+        return null;
+    }
+
+    private String createDbSystem(String displayName) {
+        return timed("lifecycle.DbSystem.Create", () -> {
+            String id = dbSystemManager.createDbSystem(
+                DbSystemDetailsSetup.builder(config, displayName).build().createDbSystemDetails()).getDbSystem().getId();
+            try {
+                dbSystemManager.waitForLifecycle(id, DbSystem.LifecycleState.Active, dbSystemCreateTimeout);
+            } catch (RuntimeException e) {
+                dbSystemManager.deleteDbSystem(id);
+                throw e;
+            }
+            return id;
+        });
+    }
+
+    private void deleteDbSystem(String dbSystemId) {
+        timed("lifecycle.DbSystem.Delete", () -> {
+            dbSystemManager.deleteDbSystemAndWaitForState(dbSystemId);
+            return null;
+        });
+    }
+
+    private <R> R timed(String name, Supplier<R> step) {
+        final long start = System.nanoTime();
+        try {
+            R result = step.get();
+            recorder.record(name, System.nanoTime() - start, NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            recorder.recordError(name);
+            throw e;
+        }
+    }
+
+    private void writeHistogramLog() {
+        if (loadTest.getHistogramLogFile() == null || loadTest.getHistogramLogFile().isEmpty()) {
+            return;
+        }
+        try {
+            recorder.writeLog(new File(loadTest.getHistogramLogFile()));
+        } catch (FileNotFoundException e) {
+            log.error("Can't write the latency histograms to {}", loadTest.getHistogramLogFile(), e);
+        }
+    }
+}
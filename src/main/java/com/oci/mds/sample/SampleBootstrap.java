@@ -0,0 +1,90 @@
+package com.oci.mds.sample;
+
+import com.oci.mds.configuration.ProjectConfiguration;
+import com.oci.mds.util.ConfigUtils;
+import com.oci.mds.util.FutureUtils;
+import com.oci.mds.util.OciUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Warm-up of a sample, running the independent lookups of its setup concurrently on the async executor instead of
+ * one round-trip after the other: building the SDK clients used by the managers (with the endpoint override),
+ * resolving the availability domain and looking up the built-in configuration of the shape, which is then served
+ * from the configuration cache. Logs how long each step took.
+ */
+@Slf4j
+class SampleBootstrap {
+
+    private static final String BREAKDOWN_MESSAGE = "Bootstrap done in {}ms ({}ms of steps, {}ms since JVM start): {}";
+
+    private final ProjectConfiguration config;
+    private final Map<String, Duration> steps = new ConcurrentSkipListMap<>();
+
+    SampleBootstrap(ProjectConfiguration config) {
+        this.config = config;
+    }
+
+    /**
+     * Runs the warm-up steps and sets the availability domain of the configuration.
+     * @throws RuntimeException - the failure of a client or the availability domain lookup
+     */
+    void run() {
+        final Instant startTime = Instant.now();
+        final List<CompletableFuture<?>> futures = new ArrayList<>();
+
+        futures.add(step("client.DbSystem", config::getDbSystemClient));
+        futures.add(step("client.DbBackups", config::getDbBackupsClient));
+        if (config.isTrackWorkRequests()) {
+            futures.add(step("client.WorkRequests", config::getWorkRequestsClient));
+        }
+
+        final CompletableFuture<String> availabilityDomain = config.getLogicalADName() != null
+            ? CompletableFuture.completedFuture(config.getLogicalADName())
+            : step("availabilityDomain", () -> new OciUtils(config).getConfiguredAvailabilityDomain());
+        futures.add(availabilityDomain);
+
+        // Only a cache warm-up: on failure, the lookup is done again when the DbSystem details are built
+        futures.add(step("configuration", () -> new ConfigUtils(config)
+            .getBuiltInConfigurationByShape(config.getCompartmentId(), config.getMysqlInstanceComputeShape()))
+            .exceptionally(throwable -> {
+                log.warn("Can't look up the configuration of shape {} during the bootstrap: {}",
+                    config.getMysqlInstanceComputeShape(), throwable.getMessage());
+                return null;
+            }));
+
+        FutureUtils.join(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])));
+        config.setAvailabilityDomain(availabilityDomain.join());
+
+        final Instant endTime = Instant.now();
+        log.info(BREAKDOWN_MESSAGE,
+            Duration.between(startTime, endTime).toMillis(),
+            steps.values().stream().mapToLong(Duration::toMillis).sum(),
+            endTime.toEpochMilli() - ManagementFactory.getRuntimeMXBean().getStartTime(),
+            steps.entrySet().stream()
+                .map(step -> step.getKey() + " " + step.getValue().toMillis() + "ms")
+                .collect(Collectors.joining(", ")));
+    }
+
+    private <R> CompletableFuture<R> step(String name, Supplier<R> step) {
+        return CompletableFuture.supplyAsync(() -> {
+            final Instant stepStart = Instant.now();
+            try {
+                return step.get();
+            } finally {
+                steps.put(name, Duration.between(stepStart, Instant.now()));
+            }
+        }, config.getAsyncExecutor());
+    }
+}
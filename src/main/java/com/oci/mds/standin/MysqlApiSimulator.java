@@ -0,0 +1,395 @@
+package com.oci.mds.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.oci.mds.configuration.StandInConfiguration;
+import com.oci.mds.configuration.StandInConfiguration.DelayRange;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory implementation of the DbSystem, Backups, Mysqlaas (configurations), WorkRequests and Identity
+ * (availability domains) operations used by the managers.
+ */
+@Slf4j
+class MysqlApiSimulator {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final String DEFAULT_MYSQL_VERSION = "8.0.22";
+    private static final int DEFAULT_STORAGE_SIZE = 50;
+
+    private static final List<String> DBSYSTEM_FIELDS = Arrays.asList("compartmentId", "displayName", "description",
+        "availabilityDomain", "faultDomain", "shapeName", "mysqlVersion", "subnetId", "configurationId",
+        "dataStorageSizeInGBs", "hostnameLabel", "ipAddress", "port", "portX", "backupPolicy", "source",
+        "freeformTags", "definedTags");
+    private static final List<String> BACKUP_FIELDS = Arrays.asList("displayName", "description", "backupType",
+        "dbSystemId", "retentionInDays", "freeformTags", "definedTags");
+
+    private final StandInConfiguration configuration;
+    private final ObjectMapper mapper;
+    private final String logicalAdName;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ConcurrentMap<String, SimulatedResource> dbSystems = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SimulatedResource> backups = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SimulatedResource> configurations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SimulatedWorkRequest> workRequests = new ConcurrentHashMap<>();
+
+    MysqlApiSimulator(StandInConfiguration configuration, ObjectMapper mapper, String shapeName, String logicalAdName) {
+        this.configuration = configuration;
+        this.mapper = mapper;
+        this.logicalAdName = logicalAdName == null ? "STANDIN:AD-1" : logicalAdName;
+        if (shapeName != null) {
+            addBuiltInConfiguration(shapeName);
+        }
+    }
+
+    StandInResponse handle(String method, String[] path, Map<String, String> query, JsonNode body) {
+        switch (path[0]) {
+            case "dbSystems":
+                return handleDbSystems(method, path, query, body);
+            case "backups":
+                return handleBackups(method, path, query, body);
+            case "configurations":
+                return handleConfigurations(method, path, query);
+            case "workRequests":
+                return handleWorkRequests(method, path, query);
+            default:
+                return notFound(String.join("/", path));
+        }
+    }
+
+    StandInResponse listAvailabilityDomains(Map<String, String> query) {
+        Map<String, Object> availabilityDomain = new LinkedHashMap<>();
+        availabilityDomain.put("name", logicalAdName);
+        availabilityDomain.put("id", "ocid1.availabilitydomain.oc1.standin.1");
+        availabilityDomain.put("compartmentId", query.get("compartmentId"));
+        return StandInResponse.ok(Arrays.asList(availabilityDomain));
+    }
+
+    /* DbSystems */
+
+    private StandInResponse handleDbSystems(String method, String[] path, Map<String, String> query, JsonNode body) {
+        if (path.length == 1) {
+            if ("GET".equals(method)) {
+                return list(dbSystems.values(), query, "dbSystemId");
+            } else if ("POST".equals(method)) {
+                return createDbSystem(body);
+            }
+        } else if (path.length == 2) {
+            SimulatedResource dbSystem = dbSystems.get(path[1]);
+            if (dbSystem == null) {
+                return notFound(path[1]);
+            }
+            switch (method) {
+                case "GET":
+                    return StandInResponse.ok(dbSystem.toJson()).header("etag", etag(dbSystem));
+                case "PUT":
+                    Map<String, Object> fields = copyFields(body, Arrays.asList("displayName", "description", "configurationId",
+                        "backupPolicy", "freeformTags", "definedTags"));
+                    return changeDbSystem(dbSystem, "UPDATE_DBSYSTEM", null, fields, configuration.getDbSystemUpdateDelay(),
+                        SimulatedState.ACTIVE, SimulatedState.INACTIVE);
+                case "DELETE":
+                    return deleteResource(dbSystem, "DELETE_DBSYSTEM", configuration.getDbSystemDeleteDelay());
+                default:
+                    break;
+            }
+        } else if (path.length == 4 && "actions".equals(path[2]) && "POST".equals(method)) {
+            SimulatedResource dbSystem = dbSystems.get(path[1]);
+            if (dbSystem == null) {
+                return notFound(path[1]);
+            }
+            switch (path[3]) {
+                case "stop":
+                    return changeDbSystem(dbSystem, "STOP_DBSYSTEM", SimulatedState.INACTIVE, configuration.getDbSystemUpdateDelay(), SimulatedState.ACTIVE);
+                case "start":
+                    return changeDbSystem(dbSystem, "START_DBSYSTEM", SimulatedState.ACTIVE, configuration.getDbSystemUpdateDelay(), SimulatedState.INACTIVE);
+                case "restart":
+                    return changeDbSystem(dbSystem, "RESTART_DBSYSTEM", SimulatedState.ACTIVE, configuration.getDbSystemUpdateDelay(), SimulatedState.ACTIVE);
+                default:
+                    break;
+            }
+        }
+        return notFound(String.join("/", path));
+    }
+
+    private StandInResponse createDbSystem(JsonNode body) {
+        Map<String, Object> fields = copyFields(body, DBSYSTEM_FIELDS);
+        fields.putIfAbsent("mysqlVersion", DEFAULT_MYSQL_VERSION);
+        fields.putIfAbsent("availabilityDomain", logicalAdName);
+
+        JsonNode source = body.path("source");
+        if ("BACKUP".equals(source.path("sourceType").asText())) {
+            SimulatedResource backup = backups.get(source.path("backupId").asText());
+            if (backup == null || backup.getState() != SimulatedState.ACTIVE) {
+                return StandInResponse.error(409, "IncorrectState", "Backup is not available for restore");
+            }
+            fields.putIfAbsent("dataStorageSizeInGBs", backup.getField("dataStorageSizeInGBs"));
+        }
+        fields.putIfAbsent("dataStorageSizeInGBs", DEFAULT_STORAGE_SIZE);
+
+        SimulatedResource dbSystem = new SimulatedResource(newId("mysqldbsystem"), sequence.incrementAndGet(), fields, SimulatedState.CREATING);
+        final SimulatedState eventualState = eventualCreatedState();
+        final Duration delay = delay(configuration.getDbSystemCreateDelay());
+        dbSystem.transition(SimulatedState.CREATING, eventualState, delay);
+        dbSystems.put(dbSystem.getId(), dbSystem);
+        SimulatedWorkRequest workRequest = addWorkRequest("CREATE_DBSYSTEM", dbSystem, delay, eventualState == SimulatedState.FAILED);
+        log.debug("Stand-in created DbSystem {}", dbSystem.getId());
+        return StandInResponse.ok(dbSystem.toJson()).header("etag", etag(dbSystem)).header("opc-work-request-id", workRequest.getId());
+    }
+
+    private StandInResponse changeDbSystem(SimulatedResource dbSystem, String operationType, SimulatedState targetState,
+                                           DelayRange delayRange, SimulatedState... allowedStates) {
+        return changeDbSystem(dbSystem, operationType, targetState, Collections.emptyMap(), delayRange, allowedStates);
+    }
+
+    /**
+     * Checks the state, updates the fields and starts the transition under the lock of the DbSystem,
+     * so a rejected change leaves it untouched.
+     * @param targetState - state reached once the change is done, null to go back to the current state
+     * @param fields - fields set by the change
+     */
+    private StandInResponse changeDbSystem(SimulatedResource dbSystem, String operationType, SimulatedState targetState,
+                                           Map<String, Object> fields, DelayRange delayRange, SimulatedState... allowedStates) {
+        final Duration delay = delay(delayRange);
+        synchronized (dbSystem) {
+            final SimulatedState currentState = dbSystem.getState();
+            if (!Arrays.asList(allowedStates).contains(currentState)) {
+                return incorrectState(dbSystem);
+            }
+            fields.forEach(dbSystem::setField);
+            dbSystem.transition(SimulatedState.UPDATING, targetState == null ? currentState : targetState, delay);
+        }
+        return StandInResponse.accepted().header("opc-work-request-id", addWorkRequest(operationType, dbSystem, delay, false).getId());
+    }
+
+    /* Backups */
+
+    private StandInResponse handleBackups(String method, String[] path, Map<String, String> query, JsonNode body) {
+        if (path.length == 1) {
+            if ("GET".equals(method)) {
+                return list(backups.values(), query, "backupId");
+            } else if ("POST".equals(method)) {
+                return createBackup(body);
+            }
+        } else if (path.length == 2) {
+            SimulatedResource backup = backups.get(path[1]);
+            if (backup == null) {
+                return notFound(path[1]);
+            }
+            switch (method) {
+                case "GET":
+                    return StandInResponse.ok(backup.toJson()).header("etag", etag(backup));
+                case "PUT":
+                    copyFields(body, Arrays.asList("displayName", "description", "retentionInDays")).forEach(backup::setField);
+                    return StandInResponse.ok(backup.toJson()).header("etag", etag(backup));
+                case "DELETE":
+                    return deleteResource(backup, "DELETE_BACKUP", configuration.getBackupDeleteDelay());
+                default:
+                    break;
+            }
+        }
+        return notFound(String.join("/", path));
+    }
+
+    private StandInResponse createBackup(JsonNode body) {
+        Map<String, Object> fields = copyFields(body, BACKUP_FIELDS);
+        SimulatedResource dbSystem = dbSystems.get(String.valueOf(fields.get("dbSystemId")));
+        if (dbSystem == null) {
+            return notFound(String.valueOf(fields.get("dbSystemId")));
+        }
+
+        final Duration delay = delay(configuration.getBackupCreateDelay());
+        final SimulatedState eventualState = eventualCreatedState();
+        final SimulatedResource backup;
+        synchronized (dbSystem) {
+            // Like MDS, a DbSystem runs a single operation at a time and stays Updating while it is backed up
+            if (dbSystem.getState() != SimulatedState.ACTIVE) {
+                return incorrectState(dbSystem);
+            }
+            fields.put("compartmentId", dbSystem.getField("compartmentId"));
+            fields.put("shapeName", dbSystem.getField("shapeName"));
+            fields.put("mysqlVersion", dbSystem.getField("mysqlVersion"));
+            fields.put("dataStorageSizeInGBs", dbSystem.getField("dataStorageSizeInGBs"));
+            fields.put("backupSizeInGBs", 1 + ThreadLocalRandom.current().nextInt(DEFAULT_STORAGE_SIZE));
+            fields.put("creationType", "MANUAL");
+
+            backup = new SimulatedResource(newId("mysqlbackup"), sequence.incrementAndGet(), fields, SimulatedState.CREATING);
+            backup.transition(SimulatedState.CREATING, eventualState, delay);
+            dbSystem.transition(SimulatedState.UPDATING, SimulatedState.ACTIVE, delay);
+        }
+        backups.put(backup.getId(), backup);
+        SimulatedWorkRequest workRequest = addWorkRequest("CREATE_BACKUP", backup, delay, eventualState == SimulatedState.FAILED);
+        log.debug("Stand-in created Backup {}", backup.getId());
+        return StandInResponse.ok(backup.toJson()).header("etag", etag(backup)).header("opc-work-request-id", workRequest.getId());
+    }
+
+    /* Configurations */
+
+    private StandInResponse handleConfigurations(String method, String[] path, Map<String, String> query) {
+        if (path.length == 1 && "GET".equals(method)) {
+            String shapeName = query.get("shapeName");
+            return list(configurations.values().stream()
+                .filter(config -> shapeName == null || shapeName.equals(config.getField("shapeName")))
+                .collect(Collectors.toList()), query, "configurationId");
+        } else if (path.length == 2 && "GET".equals(method)) {
+            SimulatedResource config = configurations.get(path[1]);
+            return config == null ? notFound(path[1]) : StandInResponse.ok(config.toJson()).header("etag", etag(config));
+        }
+        return StandInResponse.error(404, "NotFound", "Only the built-in configurations are simulated");
+    }
+
+    private void addBuiltInConfiguration(String shapeName) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("compartmentId", null);
+        fields.put("displayName", shapeName + ".Built-in");
+        fields.put("description", "Default configuration for the " + shapeName + " MySQL Shape");
+        fields.put("shapeName", shapeName);
+        fields.put("type", "DEFAULT");
+        fields.put("variables", new LinkedHashMap<>());
+        SimulatedResource config = new SimulatedResource(newId("mysqlconfiguration"), sequence.incrementAndGet(), fields, SimulatedState.ACTIVE);
+        configurations.put(config.getId(), config);
+    }
+
+    /* Work requests */
+
+    private StandInResponse handleWorkRequests(String method, String[] path, Map<String, String> query) {
+        if (!"GET".equals(method)) {
+            return notFound(String.join("/", path));
+        }
+        if (path.length == 1) {
+            String compartmentId = query.get("compartmentId");
+            int limit = query.containsKey("limit") ? Integer.parseInt(query.get("limit")) : DEFAULT_PAGE_SIZE;
+            int offset = query.containsKey("page") ? Integer.parseInt(query.get("page")) : 0;
+
+            List<SimulatedWorkRequest> matching = workRequests.values().stream()
+                .filter(workRequest -> compartmentId == null || compartmentId.equals(workRequest.getCompartmentId()))
+                .sorted(Comparator.comparingLong(SimulatedWorkRequest::getSequence).reversed())
+                .collect(Collectors.toList());
+            List<Map<String, Object>> page = matching.stream()
+                .skip(offset)
+                .limit(limit)
+                .map(SimulatedWorkRequest::toJson)
+                .collect(Collectors.toList());
+
+            String nextPage = offset + limit < matching.size() ? String.valueOf(offset + limit) : null;
+            return StandInResponse.ok(page).header("opc-next-page", nextPage);
+        }
+
+        SimulatedWorkRequest workRequest = workRequests.get(path[1]);
+        if (workRequest == null) {
+            return notFound(path[1]);
+        } else if (path.length == 2) {
+            return StandInResponse.ok(workRequest.toJson());
+        } else if (path.length == 3 && "errors".equals(path[2])) {
+            return StandInResponse.ok(workRequest.errors());
+        }
+        return notFound(String.join("/", path));
+    }
+
+    private SimulatedWorkRequest addWorkRequest(String operationType, SimulatedResource resource, Duration duration, boolean failing) {
+        String entityType = resource.getId().startsWith("ocid1.mysqlbackup") ? "mysqlbackup" : "mysqldbsystem";
+        SimulatedWorkRequest workRequest = new SimulatedWorkRequest(newId("mysqlworkrequest"), sequence.incrementAndGet(),
+            operationType, entityType, resource, duration, failing);
+        workRequests.put(workRequest.getId(), workRequest);
+        return workRequest;
+    }
+
+    /* Helpers */
+
+    private StandInResponse deleteResource(SimulatedResource resource, String operationType, DelayRange delayRange) {
+        final Duration delay = delay(delayRange);
+        synchronized (resource) {
+            SimulatedState state = resource.getState();
+            if (state != SimulatedState.ACTIVE && state != SimulatedState.INACTIVE && state != SimulatedState.FAILED) {
+                return incorrectState(resource);
+            }
+            resource.transition(SimulatedState.DELETING, SimulatedState.DELETED, delay);
+        }
+        return StandInResponse.noContent().header("opc-work-request-id", addWorkRequest(operationType, resource, delay, false).getId());
+    }
+
+    private StandInResponse list(Collection<SimulatedResource> resources, Map<String, String> query, String idParameter) {
+        Predicate<SimulatedResource> filter = resource -> true;
+        filter = filter.and(matches(query.get(idParameter), SimulatedResource::getId));
+        filter = filter.and(matches(query.get("compartmentId"), resource -> resource.getField("compartmentId")));
+        filter = filter.and(matches(query.get("displayName"), resource -> resource.getField("displayName")));
+        filter = filter.and(matches(query.get("dbSystemId"), resource -> resource.getField("dbSystemId")));
+        filter = filter.and(matches(query.get("lifecycleState"), SimulatedResource::getState));
+
+        int limit = query.containsKey("limit") ? Integer.parseInt(query.get("limit")) : DEFAULT_PAGE_SIZE;
+        int offset = query.containsKey("page") ? Integer.parseInt(query.get("page")) : 0;
+
+        List<SimulatedResource> matching = resources.stream()
+            .filter(filter)
+            .sorted(Comparator.comparingLong(SimulatedResource::getSequence))
+            .collect(Collectors.toList());
+        List<Map<String, Object>> page = matching.stream()
+            .skip(offset)
+            .limit(limit)
+            .map(SimulatedResource::toJson)
+            .collect(Collectors.toList());
+
+        String nextPage = offset + limit < matching.size() ? String.valueOf(offset + limit) : null;
+        return StandInResponse.ok(page).header("opc-next-page", nextPage);
+    }
+
+    private static Predicate<SimulatedResource> matches(String expected, java.util.function.Function<SimulatedResource, Object> field) {
+        return resource -> expected == null || expected.equals(String.valueOf(field.apply(resource)));
+    }
+
+    private Map<String, Object> copyFields(JsonNode body, List<String> names) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (body != null) {
+            names.stream()
+                .filter(body::has)
+                .forEach(name -> fields.put(name, mapper.convertValue(body.get(name), Object.class)));
+        }
+        return fields;
+    }
+
+    private SimulatedState eventualCreatedState() {
+        return ThreadLocalRandom.current().nextDouble() < configuration.getFailedStateRate()
+            ? SimulatedState.FAILED : SimulatedState.ACTIVE;
+    }
+
+    private static Duration delay(DelayRange range) {
+        double min = Math.max(0, range.getMinInSeconds());
+        double max = Math.max(min, range.getMaxInSeconds());
+        return Duration.ofMillis((long) ((min + ThreadLocalRandom.current().nextDouble() * (max - min)) * 1000));
+    }
+
+    private static String newId(String resourceType) {
+        return "ocid1." + resourceType + ".oc1.standin." + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    private static String etag(SimulatedResource resource) {
+        return Integer.toHexString(resource.toJson().hashCode());
+    }
+
+    private static StandInResponse incorrectState(SimulatedResource resource) {
+        return StandInResponse.error(409, "IncorrectState",
+            String.format("Resource %s is in state %s", resource.getId(), resource.getState()));
+    }
+
+    private static StandInResponse notFound(String id) {
+        return StandInResponse.error(404, "NotAuthorizedOrNotFound", "Resource " + id + " not found");
+    }
+}
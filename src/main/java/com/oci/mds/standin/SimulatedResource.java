@@ -0,0 +1,96 @@
+package com.oci.mds.standin;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A resource of the stand-in. Pending transitions are applied lazily when the resource is read,
+ * so no thread is needed to move resources through their lifecycle.
+ */
+class SimulatedResource {
+
+    private final String id;
+    private final long sequence;
+    private final Instant timeCreated;
+    private final Map<String, Object> fields;
+    private final Deque<Transition> transitions = new ArrayDeque<>();
+
+    private SimulatedState state;
+    private Instant timeUpdated;
+
+    SimulatedResource(String id, long sequence, Map<String, Object> fields, SimulatedState state) {
+        this.id = id;
+        this.sequence = sequence;
+        this.fields = new LinkedHashMap<>(fields);
+        this.state = state;
+        this.timeCreated = Instant.now();
+        this.timeUpdated = timeCreated;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    synchronized Object getField(String name) {
+        return fields.get(name);
+    }
+
+    synchronized void setField(String name, Object value) {
+        fields.put(name, value);
+    }
+
+    synchronized SimulatedState getState() {
+        advance();
+        return state;
+    }
+
+    /**
+     * Moves the resource to {@code immediate} now and to {@code eventual} after the delay,
+     * dropping any transition still pending.
+     */
+    synchronized void transition(SimulatedState immediate, SimulatedState eventual, Duration delay) {
+        advance();
+        transitions.clear();
+        setState(immediate, Instant.now());
+        transitions.add(new Transition(eventual, Instant.now().plus(delay)));
+    }
+
+    synchronized Map<String, Object> toJson() {
+        advance();
+        Map<String, Object> json = new LinkedHashMap<>(fields);
+        json.put("id", id);
+        json.put("lifecycleState", state.name());
+        json.put("timeCreated", StandInServer.formatTime(timeCreated));
+        json.put("timeUpdated", StandInServer.formatTime(timeUpdated));
+        return json;
+    }
+
+    private void advance() {
+        final Instant now = Instant.now();
+        while (!transitions.isEmpty() && !transitions.peek().getAt().isAfter(now)) {
+            Transition transition = transitions.poll();
+            setState(transition.getState(), transition.getAt());
+        }
+    }
+
+    private void setState(SimulatedState newState, Instant at) {
+        state = newState;
+        timeUpdated = at;
+    }
+
+    @Value
+    private static class Transition {
+        private SimulatedState state;
+        private Instant at;
+    }
+}
@@ -0,0 +1,8 @@
+package com.oci.mds.standin;
+
+/**
+ * Lifecycle states shared by the simulated DbSystems and Backups, named after their API values.
+ */
+enum SimulatedState {
+    CREATING, ACTIVE, INACTIVE, UPDATING, DELETING, DELETED, FAILED
+}
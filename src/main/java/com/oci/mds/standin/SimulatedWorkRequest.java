@@ -0,0 +1,94 @@
+package com.oci.mds.standin;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A work request of the stand-in, progressing linearly from its acceptance until the end of the transition
+ * of its resource. Like the resources, its progress is computed when it is read.
+ */
+class SimulatedWorkRequest {
+
+    private final String id;
+    private final long sequence;
+    private final String operationType;
+    private final String entityType;
+    private final String resourceId;
+    private final String compartmentId;
+    private final boolean failing;
+    private final Instant timeAccepted;
+    private final Instant timeFinished;
+
+    SimulatedWorkRequest(String id, long sequence, String operationType, String entityType, SimulatedResource resource,
+                         Duration duration, boolean failing) {
+        this.id = id;
+        this.sequence = sequence;
+        this.operationType = operationType;
+        this.entityType = entityType;
+        this.resourceId = resource.getId();
+        this.compartmentId = String.valueOf(resource.getField("compartmentId"));
+        this.failing = failing;
+        this.timeAccepted = Instant.now();
+        this.timeFinished = timeAccepted.plus(duration);
+    }
+
+    String getId() {
+        return id;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    String getCompartmentId() {
+        return compartmentId;
+    }
+
+    Map<String, Object> toJson() {
+        final Instant now = Instant.now();
+        final boolean finished = !now.isBefore(timeFinished);
+        final long total = Math.max(1, Duration.between(timeAccepted, timeFinished).toMillis());
+        final float percentComplete = finished ? 100 : Math.min(99, Duration.between(timeAccepted, now).toMillis() * 100f / total);
+
+        Map<String, Object> resource = new LinkedHashMap<>();
+        resource.put("entityType", entityType);
+        resource.put("actionType", finished ? actionType() : "IN_PROGRESS");
+        resource.put("identifier", resourceId);
+        resource.put("entityUri", "/20190415/" + (entityType.equals("mysqlbackup") ? "backups/" : "dbSystems/") + resourceId);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", id);
+        json.put("operationType", operationType);
+        json.put("status", finished ? (failing ? "FAILED" : "SUCCEEDED") : "IN_PROGRESS");
+        json.put("compartmentId", compartmentId);
+        json.put("resources", Arrays.asList(resource));
+        json.put("percentComplete", percentComplete);
+        json.put("timeAccepted", StandInServer.formatTime(timeAccepted));
+        json.put("timeStarted", StandInServer.formatTime(timeAccepted));
+        json.put("timeFinished", finished ? StandInServer.formatTime(timeFinished) : null);
+        return json;
+    }
+
+    List<Map<String, Object>> errors() {
+        if (!failing || Instant.now().isBefore(timeFinished)) {
+            return Collections.emptyList();
+        }
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("code", "InternalError");
+        error.put("message", "Simulated failure of " + operationType + " on " + resourceId);
+        error.put("timestamp", StandInServer.formatTime(timeFinished));
+        return Arrays.asList(error);
+    }
+
+    private String actionType() {
+        if (operationType.startsWith("CREATE")) {
+            return "CREATED";
+        }
+        return operationType.startsWith("DELETE") ? "DELETED" : "UPDATED";
+    }
+}
@@ -0,0 +1,47 @@
+package com.oci.mds.standin;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@Getter
+class StandInResponse {
+
+    private final int status;
+    private final Object body;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    private StandInResponse(int status, Object body) {
+        this.status = status;
+        this.body = body;
+        headers.put("opc-request-id", UUID.randomUUID().toString().replace("-", "").toUpperCase());
+    }
+
+    static StandInResponse ok(Object body) {
+        return new StandInResponse(200, body);
+    }
+
+    static StandInResponse accepted() {
+        return new StandInResponse(202, null);
+    }
+
+    static StandInResponse noContent() {
+        return new StandInResponse(204, null);
+    }
+
+    static StandInResponse error(int status, String code, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("code", code);
+        body.put("message", message);
+        return new StandInResponse(status, body);
+    }
+
+    StandInResponse header(String name, String value) {
+        if (value != null) {
+            headers.put(name, value);
+        }
+        return this;
+    }
+}
@@ -0,0 +1,207 @@
+package com.oci.mds.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import com.oci.mds.configuration.StandInConfiguration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP server standing in for the MDS DbSystem, Backups and Mysqlaas endpoints (API version 20190415)
+ * and for the Identity availability domains (API version 20160918), so the samples can run offline against
+ * {@code mysqlClientEndpoint: "http://localhost:<port>"}.
+ * <p>
+ * Resources go through Creating, Active, Updating, Inactive, Deleting and Deleted after randomized delays taken from
+ * the {@link StandInConfiguration}. Errors are injected either randomly, with the configured rates, or on demand with
+ * {@code POST /admin/errors?status=429&count=10}, which fails the next 10 requests.
+ */
+@Slf4j
+public class StandInServer {
+
+    private static final String MYSQL_PREFIX = "/20190415/";
+    private static final String IDENTITY_PREFIX = "/20160918/";
+    private static final String ADMIN_PREFIX = "/admin/";
+
+    private static final DateTimeFormatter TIME_FORMATTER =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    private final StandInConfiguration configuration;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final MysqlApiSimulator simulator;
+    private final Map<Integer, AtomicInteger> pendingErrors = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StandInServer(StandInConfiguration configuration, String shapeName, String logicalAdName) {
+        this.configuration = configuration;
+        this.simulator = new MysqlApiSimulator(configuration, mapper, shapeName, logicalAdName);
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        executor = Executors.newFixedThreadPool(configuration.getThreads(),
+            new ThreadFactoryBuilder().setNameFormat("standin-%d").setDaemon(true).build());
+        server = HttpServer.create(new InetSocketAddress(configuration.getPort()), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        log.info("MDS API stand-in listening on port {}", getPort());
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+            log.info("MDS API stand-in stopped");
+        }
+    }
+
+    public synchronized int getPort() {
+        return server == null ? configuration.getPort() : server.getAddress().getPort();
+    }
+
+    /**
+     * Fails the next requests with the given HTTP status.
+     * @param status - HTTP status, e.g. 429 or 500
+     * @param count - number of requests to fail
+     */
+    public void injectErrors(int status, int count) {
+        pendingErrors.computeIfAbsent(status, key -> new AtomicInteger()).addAndGet(count);
+        log.info("Stand-in will fail the next {} request(s) with status {}", count, status);
+    }
+
+    static String formatTime(Instant instant) {
+        return instant == null ? null : TIME_FORMATTER.format(instant);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        StandInResponse response;
+        try {
+            response = route(exchange);
+        } catch (IllegalArgumentException | IOException e) {
+            response = StandInResponse.error(400, "InvalidParameter", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Stand-in failed to handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            response = StandInResponse.error(500, "InternalServerError", e.getMessage());
+        }
+        send(exchange, response);
+    }
+
+    private StandInResponse route(HttpExchange exchange) throws IOException {
+        final String method = exchange.getRequestMethod();
+        final String path = exchange.getRequestURI().getPath();
+        final Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        if (path.startsWith(ADMIN_PREFIX)) {
+            if ("POST".equals(method) && path.equals(ADMIN_PREFIX + "errors")) {
+                injectErrors(Integer.parseInt(query.get("status")), Integer.parseInt(query.getOrDefault("count", "1")));
+                return StandInResponse.noContent();
+            }
+            return StandInResponse.error(404, "NotFound", path);
+        }
+
+        final StandInResponse injected = injectedError();
+        if (injected != null) {
+            return injected;
+        }
+
+        if (path.startsWith(MYSQL_PREFIX)) {
+            final String[] segments = path.substring(MYSQL_PREFIX.length()).split("/");
+            return simulator.handle(method, segments, query, readBody(exchange));
+        } else if (path.startsWith(IDENTITY_PREFIX + "availabilityDomains") && "GET".equals(method)) {
+            return simulator.listAvailabilityDomains(query);
+        }
+        return StandInResponse.error(404, "NotFound", path);
+    }
+
+    private StandInResponse injectedError() {
+        for (Map.Entry<Integer, AtomicInteger> entry : pendingErrors.entrySet()) {
+            if (entry.getValue().getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+                return error(entry.getKey());
+            }
+        }
+        for (Map.Entry<Integer, Double> entry : configuration.getErrorRates().entrySet()) {
+            if (ThreadLocalRandom.current().nextDouble() < entry.getValue()) {
+                return error(entry.getKey());
+            }
+        }
+        return null;
+    }
+
+    private static StandInResponse error(int status) {
+        switch (status) {
+            case 429:
+                return StandInResponse.error(status, "TooManyRequests", "Too many requests for the tenancy");
+            case 500:
+                return StandInResponse.error(status, "InternalServerError", "Internal error from the stand-in");
+            case 503:
+                return StandInResponse.error(status, "ServiceUnavailable", "Service is unavailable");
+            default:
+                return StandInResponse.error(status, "InjectedError", "Error injected by the stand-in");
+        }
+    }
+
+    private JsonNode readBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            JsonNode node = mapper.readTree(body);
+            return node == null || node.isMissingNode() ? mapper.createObjectNode() : node;
+        }
+    }
+
+    private void send(HttpExchange exchange, StandInResponse response) throws IOException {
+        response.getHeaders().forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+        if (response.getBody() == null) {
+            exchange.sendResponseHeaders(response.getStatus(), -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = mapper.writeValueAsBytes(response.getBody());
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.getStatus(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> query = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : Arrays.asList(rawQuery.split("&"))) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, separator), "UTF-8"),
+                    URLDecoder.decode(pair.substring(separator + 1), "UTF-8"));
+            }
+        }
+        return query;
+    }
+}
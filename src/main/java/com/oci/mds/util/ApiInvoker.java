@@ -0,0 +1,246 @@
+package com.oci.mds.util;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.RateLimiter;
+
+import com.oracle.bmc.model.BmcException;
+import com.oracle.bmc.requests.BmcRequest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
+
+/**
+ * Single entry point of the SDK calls, recording for every "client.operation":
+ * <ul>
+ * <li>{@code mds.api.<client>.<operation>} - timer of the calls</li>
+ * <li>{@code mds.api.<client>.<operation>.errors.<status>} - meter of the failed calls by HTTP status</li>
+ * <li>{@code mds.api.<client>.<operation>.queueing} - timer of the wait for a rate limiter token</li>
+ * <li>{@code mds.api.<client>.<operation>.throttled} - meter of the calls retried after a 429</li>
+ * <li>{@code mds.api.<client>.inFlight} - gauge of the calls in progress</li>
+ * <li>{@code mds.http.<route>.inFlightPerKeptAlive} - gauge of the calls in progress over the idle connections kept per route</li>
+ * </ul>
+ * <p>
+ * Calls are rate limited with token buckets shared by all the managers, keyed like the {@code rateLimits} config:
+ * {@code <client>:<operation>} (e.g. {@code DbSystem:GetDbSystem}), then {@code <client>}, then {@code default}.
+ * A throttled call (429) waits for a new token and is retried instead of failing.
+ */
+@Slf4j
+public class ApiInvoker {
+
+    public static final String METRICS_PREFIX = "mds";
+    public static final String DEFAULT_RATE_LIMIT_KEY = "default";
+
+    private static final String API_PREFIX = name(METRICS_PREFIX, "api");
+    private static final String UNKNOWN_STATUS = "unknown";
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final long THROTTLE_BACKOFF_MILLIS = 1000;
+    private static final long MAX_THROTTLE_BACKOFF_MILLIS = 30000;
+
+    private final MetricRegistry metricRegistry;
+    private final Map<String, Double> rateLimits;
+    private final int throttleRetries;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Optional<RateLimiter>> rateLimiters = new ConcurrentHashMap<>();
+    private volatile LatencyRecorder latencyRecorder;
+
+    public ApiInvoker(MetricRegistry metricRegistry) {
+        this(metricRegistry, Collections.emptyMap(), 0);
+    }
+
+    /**
+     * @param metricRegistry - registry of the call metrics
+     * @param rateLimits - permits per second by "client:operation", "client" or "default"; missing or not positive means unlimited
+     * @param throttleRetries - number of retries of a call throttled by the service
+     */
+    public ApiInvoker(MetricRegistry metricRegistry, Map<String, Double> rateLimits, int throttleRetries) {
+        this.metricRegistry = metricRegistry;
+        this.rateLimits = rateLimits == null ? Collections.emptyMap() : rateLimits;
+        this.throttleRetries = throttleRetries;
+    }
+
+    /**
+     * Runs an SDK call once a rate limiter token is available and records its metrics.
+     * @param client - client name, e.g. "DbSystem"
+     * @param operation - operation name, e.g. "GetDbSystem"
+     * @param call - the SDK call
+     * @return the response of the call
+     */
+    public <R> R invoke(String client, String operation, Supplier<R> call) {
+        final String operationName = name(API_PREFIX, client, operation);
+        final Optional<RateLimiter> rateLimiter = rateLimiter(client, operation);
+
+        for (int attempt = 0; ; attempt++) {
+            rateLimiter.ifPresent(limiter -> {
+                double waitedInSeconds = limiter.acquire();
+                metricRegistry.timer(name(operationName, "queueing"))
+                    .update((long) (waitedInSeconds * TimeUnit.SECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+            });
+            try {
+                return timed(client, operation, call);
+            } catch (BmcException e) {
+                if (e.getStatusCode() != TOO_MANY_REQUESTS || attempt >= throttleRetries) {
+                    throw e;
+                }
+                metricRegistry.meter(name(operationName, "throttled")).mark();
+                long backoff = Math.min(MAX_THROTTLE_BACKOFF_MILLIS, THROTTLE_BACKOFF_MILLIS << Math.min(attempt, 16));
+                backoff += ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+                log.debug("{}:{} throttled, retry {}/{} in {}ms", client, operation, attempt + 1, throttleRetries, backoff);
+                sleepUninterruptibly(backoff, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    public MetricRegistry getMetricRegistry() {
+        return metricRegistry;
+    }
+
+    /**
+     * Registers {@code mds.http.<route>.inFlightPerKeptAlive}, the calls in flight on the clients of a route over the
+     * idle connections the JDK keeps open per route ({@code http.maxConnections}). It is not a pool utilization:
+     * the JDK opens as many connections as there are calls in flight, but above 1 the connections over the limit
+     * are closed after use instead of being reused, so the next calls pay a new handshake.
+     * @param route - route name, e.g. "mysql"
+     * @param maxIdleConnections - max idle connections kept open per route
+     * @param clients - names of the clients calling the route
+     */
+    public void registerInFlightPerKeptAlive(String route, int maxIdleConnections, String... clients) {
+        final List<AtomicInteger> counters = Arrays.stream(clients)
+            .map(this::inFlight)
+            .collect(Collectors.toList());
+        metricRegistry.gauge(name(METRICS_PREFIX, "http", route, "inFlightPerKeptAlive"), () -> new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(counters.stream().mapToInt(AtomicInteger::get).sum(), maxIdleConnections);
+            }
+        });
+    }
+
+    /**
+     * Also records the latency of every call in the given recorder, as "api.<client>.<operation>".
+     * @param latencyRecorder - recorder, null to stop recording
+     */
+    public void setLatencyRecorder(LatencyRecorder latencyRecorder) {
+        this.latencyRecorder = latencyRecorder;
+    }
+
+    /**
+     * Wraps a client so that its calls go through {@link #invoke}, e.g. to count and rate limit the calls made by
+     * the SDK waiters. Only the methods taking a request are invoked this way, the others are called directly.
+     * @param clientInterface - interface of the client, e.g. {@code com.oracle.bmc.mysql.DbSystem}
+     * @param client - client name, e.g. "DbSystem"
+     * @param target - the client
+     * @return a proxy of the client
+     */
+    public <C> C instrument(Class<C> clientInterface, String client, C target) {
+        return instrument(clientInterface, client, target, (requestedAt, response) -> { });
+    }
+
+    /**
+     * Same as {@link #instrument(Class, String, Object)}, also handing the response of every call made through
+     * {@link #invoke} to a listener, e.g. to observe the resources returned by the GETs of the SDK waiters.
+     * @param responseListener - called on the calling thread with the time the request was sent and its response
+     */
+    public <C> C instrument(Class<C> clientInterface, String client, C target, BiConsumer<Instant, Object> responseListener) {
+        return clientInterface.cast(Proxy.newProxyInstance(clientInterface.getClassLoader(), new Class<?>[]{clientInterface},
+            (proxy, method, args) -> {
+                if (args == null || args.length != 1 || !(args[0] instanceof BmcRequest)) {
+                    return call(method, target, args);
+                }
+                final String operation = Character.toUpperCase(method.getName().charAt(0)) + method.getName().substring(1);
+                final Instant requestedAt = Instant.now();
+                final Object response = invoke(client, operation, () -> call(method, target, args));
+                responseListener.accept(requestedAt, response);
+                return response;
+            }));
+    }
+
+    private static Object call(Method method, Object target, Object[] args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <R> R timed(String client, String operation, Supplier<R> call) {
+        final String operationName = name(API_PREFIX, client, operation);
+        final LatencyRecorder recorder = latencyRecorder;
+        final AtomicInteger clientInFlight = inFlight(client);
+
+        clientInFlight.incrementAndGet();
+        final Timer.Context context = metricRegistry.timer(operationName).time();
+        try {
+            return call.get();
+        } catch (BmcException e) {
+            metricRegistry.meter(name(operationName, "errors", String.valueOf(e.getStatusCode()))).mark();
+            if (recorder != null) {
+                recorder.recordError(name("api", client, operation));
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            metricRegistry.meter(name(operationName, "errors", UNKNOWN_STATUS)).mark();
+            if (recorder != null) {
+                recorder.recordError(name("api", client, operation));
+            }
+            throw e;
+        } finally {
+            final long elapsed = context.stop();
+            clientInFlight.decrementAndGet();
+            if (recorder != null) {
+                recorder.record(name("api", client, operation), elapsed, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Token bucket of the most specific configured key, shared by every operation resolving to that key.
+     */
+    private Optional<RateLimiter> rateLimiter(String client, String operation) {
+        String key = client + ":" + operation;
+        if (!rateLimits.containsKey(key)) {
+            key = rateLimits.containsKey(client) ? client : DEFAULT_RATE_LIMIT_KEY;
+        }
+        final Double permitsPerSecond = rateLimits.get(key);
+        if (permitsPerSecond == null || permitsPerSecond <= 0) {
+            return Optional.empty();
+        }
+        return rateLimiters.computeIfAbsent(key, ignored -> Optional.of(RateLimiter.create(permitsPerSecond)));
+    }
+
+    private AtomicInteger inFlight(String client) {
+        return inFlight.computeIfAbsent(client, key -> {
+            AtomicInteger counter = new AtomicInteger();
+            metricRegistry.register(name(API_PREFIX, key, "inFlight"), (Gauge<Integer>) counter::get);
+            return counter;
+        });
+    }
+}
@@ -17,21 +17,30 @@ import com.oracle.bmc.mysql.requests.UpdateConfigurationRequest;
 import com.oracle.bmc.mysql.responses.CreateConfigurationResponse;
 import com.oracle.bmc.mysql.responses.DeleteConfigurationResponse;
 import com.oracle.bmc.mysql.responses.GetConfigurationResponse;
+import com.oracle.bmc.mysql.responses.ListConfigurationsResponse;
 import com.oracle.bmc.mysql.responses.UpdateConfigurationResponse;
 
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 public class ConfigUtils {
+    private static final String CLIENT = "Mysqlaas";
+
     private MysqlaasClient mysqlaasClient;
+    private ApiInvoker apiInvoker;
+    private ConfigurationCache configurationCache;
     private String compartmentId;
     private String shape;
 
 
     public ConfigUtils(ProjectConfiguration config) {
         this.mysqlaasClient = config.getMysqlaasClient();
+        this.apiInvoker = config.getApiInvoker();
+        this.configurationCache = config.getConfigurationCache();
         this.compartmentId = config.getCompartmentId();
         this.shape = config.getMysqlInstanceComputeShape();
     }
@@ -41,7 +50,7 @@ public class ConfigUtils {
             CreateConfigurationRequest.builder()
                 .createConfigurationDetails(createConfigurationDetails)
                 .build();
-        return mysqlaasClient.createConfiguration(request);
+        return apiInvoker.invoke(CLIENT, "CreateConfiguration", () -> mysqlaasClient.createConfiguration(request));
     }
 
     public String createConfiguration() {
@@ -58,7 +67,7 @@ public class ConfigUtils {
             .createConfigurationDetails(createConfigurationDetails)
             .build();
 
-        final CreateConfigurationResponse configuration = mysqlaasClient.createConfiguration(request);
+        final CreateConfigurationResponse configuration = apiInvoker.invoke(CLIENT, "CreateConfiguration", () -> mysqlaasClient.createConfiguration(request));
         Configuration originalConfiguration = configuration.getConfiguration();
 
         return originalConfiguration.getId();
@@ -70,7 +79,7 @@ public class ConfigUtils {
                 .updateConfigurationDetails(updateConfigurationDetails)
                 .configurationId(configurationId)
                 .build();
-        return mysqlaasClient.updateConfiguration(request);
+        return apiInvoker.invoke(CLIENT, "UpdateConfiguration", () -> mysqlaasClient.updateConfiguration(request));
     }
 
     public Configuration getConfiguration(String configurationId) {
@@ -78,7 +87,7 @@ public class ConfigUtils {
             GetConfigurationRequest.builder()
                 .configurationId(configurationId)
                 .build();
-        return mysqlaasClient.getConfiguration(configurationRequest).getConfiguration();
+        return apiInvoker.invoke(CLIENT, "GetConfiguration", () -> mysqlaasClient.getConfiguration(configurationRequest)).getConfiguration();
     }
 
     public LifecycleState getLifecycleState(String configurationId) {
@@ -86,7 +95,7 @@ public class ConfigUtils {
             GetConfigurationRequest.builder()
                 .configurationId(configurationId)
                 .build();
-        return mysqlaasClient.getConfiguration(configurationRequest).getConfiguration().getLifecycleState();
+        return apiInvoker.invoke(CLIENT, "GetConfiguration", () -> mysqlaasClient.getConfiguration(configurationRequest)).getConfiguration().getLifecycleState();
     }
 
     public DeleteConfigurationResponse deleteConfiguration(String configurationId) {
@@ -94,32 +103,24 @@ public class ConfigUtils {
             DeleteConfigurationRequest.builder()
                 .configurationId(configurationId)
                 .build();
-        return mysqlaasClient.deleteConfiguration(request);
+        return apiInvoker.invoke(CLIENT, "DeleteConfiguration", () -> mysqlaasClient.deleteConfiguration(request));
     }
 
     public boolean isConfigurationInCompartmentList(String configurationId) {
-        boolean inList = false;
-        for (ConfigurationSummary configuration : getConfigurationsList()) {
-            if (configurationId.contains(configuration.getId())) {
-                inList = true;
-                break;
-            }
+        try (Stream<ConfigurationSummary> configurations = streamConfigurations(compartmentId)) {
+            return configurations.anyMatch(configuration -> configurationId.contains(configuration.getId()));
         }
-        return inList;
     }
 
     public List<ConfigurationSummary> getConfigurationsList() {
-        final ListConfigurationsRequest configurationRequest =
-            ListConfigurationsRequest.builder()
-                .compartmentId(compartmentId).build();
-        return mysqlaasClient.listConfigurations(configurationRequest).getItems();
+        return getConfigurationsList(compartmentId);
     }
 
     public List<ConfigurationSummary> getConfigurationsList(String userCompartmentId) {
         final ListConfigurationsRequest configurationRequest =
             ListConfigurationsRequest.builder()
                 .compartmentId(userCompartmentId).build();
-        return mysqlaasClient.listConfigurations(configurationRequest).getItems();
+        return streamConfigurations(configurationRequest, true).collect(Collectors.toList());
     }
 
     public List<ConfigurationSummary> getConfigurationsList(String displayName, int limit, LifecycleState lifecycleState) {
@@ -131,31 +132,68 @@ public class ConfigUtils {
                 .lifecycleState(lifecycleState)
                 .limit(limit)
                 .build();
-        return mysqlaasClient.listConfigurations(
-            configurationRequest).getItems();
+        try (Stream<ConfigurationSummary> configurations = streamConfigurations(configurationRequest)) {
+            return configurations.limit(limit).collect(Collectors.toList());
+        }
+    }
+
+    public Stream<ConfigurationSummary> streamConfigurations(String userCompartmentId) {
+        final ListConfigurationsRequest configurationRequest =
+            ListConfigurationsRequest.builder()
+                .compartmentId(userCompartmentId).build();
+        return streamConfigurations(configurationRequest);
+    }
+
+    /**
+     * Streams the configurations matching the request, fetching the pages lazily.
+     */
+    public Stream<ConfigurationSummary> streamConfigurations(ListConfigurationsRequest configurationRequest) {
+        return streamConfigurations(configurationRequest, false);
+    }
+
+    /**
+     * Same as {@link #streamConfigurations(ListConfigurationsRequest)}.
+     * @param prefetch - prefetches the next page in the background, only worth it when the whole list is consumed
+     */
+    public Stream<ConfigurationSummary> streamConfigurations(ListConfigurationsRequest configurationRequest, boolean prefetch) {
+        return PageIterator.stream(
+            page -> apiInvoker.invoke(CLIENT, "ListConfigurations", () -> mysqlaasClient.listConfigurations(ListConfigurationsRequest.builder().copy(configurationRequest).page(page).build())),
+            ListConfigurationsResponse::getItems,
+            ListConfigurationsResponse::getOpcNextPage,
+            prefetch);
     }
 
     public GetConfigurationResponse getConfigurationResponse(String id) {
         final GetConfigurationRequest configurationRequest =
             GetConfigurationRequest.builder()
                 .configurationId(id).build();
-        return mysqlaasClient.getConfiguration(configurationRequest);
+        return apiInvoker.invoke(CLIENT, "GetConfiguration", () -> mysqlaasClient.getConfiguration(configurationRequest));
     }
 
     public String getBuiltInConfigurationIdByShape(String compartmentId, String shapeName) {
         return getBuiltInConfigurationByShape(compartmentId, shapeName).getId();
     }
 
+    /**
+     * Returns the first configuration of the compartment for the shape, cached by (compartment, shape).
+     */
     public Configuration getBuiltInConfigurationByShape(String compartmentId, String shapeName) {
-        Configuration config = null;
-        List<ConfigurationSummary> summaries = getConfigurationsList(compartmentId);
-        for (ConfigurationSummary summary: summaries ) {
-            GetConfigurationResponse cr = getConfigurationResponse(summary.getId());
-            if (shapeName.equals(cr.getConfiguration().getShapeName())) {
-                config = cr.getConfiguration();
-                break;
-            }
+        return configurationCache.get(compartmentId, shapeName, () -> findConfigurationByShape(compartmentId, shapeName));
+    }
+
+    private Configuration findConfigurationByShape(String compartmentId, String shapeName) {
+        final ListConfigurationsRequest configurationRequest =
+            ListConfigurationsRequest.builder()
+                .compartmentId(compartmentId)
+                .shapeName(shapeName)
+                .build();
+        // The summaries already carry the shape, so only the matching configuration is fetched
+        try (Stream<ConfigurationSummary> configurations = streamConfigurations(configurationRequest)) {
+            return configurations
+                .filter(summary -> shapeName.equals(summary.getShapeName()))
+                .findFirst()
+                .map(summary -> getConfiguration(summary.getId()))
+                .orElse(null);
         }
-        return config;
     }
 }
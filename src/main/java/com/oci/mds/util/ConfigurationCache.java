@@ -0,0 +1,103 @@
+package com.oci.mds.util;
+
+import com.oracle.bmc.mysql.model.Configuration;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe cache of configurations by (compartment, shape), where each entry expires after a TTL.
+ * Concurrent lookups of the same missing key share a single load.
+ */
+@Slf4j
+public class ConfigurationCache {
+
+    private final Duration ttl;
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ConfigurationCache(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * Returns the cached configuration or loads it. A null or failed load is not cached.
+     * @param compartmentId - compartment id
+     * @param shapeName - shape name
+     * @param loader - loads the configuration on a miss
+     * @return the configuration, or null if the loader didn't find one
+     */
+    public Configuration get(String compartmentId, String shapeName, Supplier<Configuration> loader) {
+        final Key key = new Key(compartmentId, shapeName);
+        final Entry[] created = new Entry[1];
+        final Entry entry = entries.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isExpired()) {
+                return existing;
+            }
+            created[0] = new Entry(Instant.now().plus(ttl));
+            return created[0];
+        });
+
+        if (entry != created[0]) {
+            hits.incrementAndGet();
+            return FutureUtils.join(entry.getConfiguration());
+        }
+
+        misses.incrementAndGet();
+        log.debug("Configuration cache miss for shape {} in compartment {}", shapeName, compartmentId);
+        try {
+            Configuration configuration = loader.get();
+            entry.getConfiguration().complete(configuration);
+            if (configuration == null) {
+                entries.remove(key, entry);
+            }
+            return configuration;
+        } catch (RuntimeException e) {
+            entry.getConfiguration().completeExceptionally(e);
+            entries.remove(key, entry);
+            throw e;
+        }
+    }
+
+    public void invalidate(String compartmentId, String shapeName) {
+        entries.remove(new Key(compartmentId, shapeName));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+
+    @Value
+    private static class Key {
+        private String compartmentId;
+        private String shapeName;
+    }
+
+    @Value
+    private static class Entry {
+        private CompletableFuture<Configuration> configuration = new CompletableFuture<>();
+        private Instant expiresAt;
+
+        boolean isExpired() {
+            return !Instant.now().isBefore(expiresAt);
+        }
+    }
+}
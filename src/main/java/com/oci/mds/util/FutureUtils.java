@@ -0,0 +1,86 @@
+package com.oci.mds.util;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Waits on futures and rethrows their failure as is: a RuntimeException or an Error thrown by the task is rethrown
+ * unwrapped, a checked exception is wrapped in a {@link CompletionException}.
+ * Also the only place where the {@link CompletionException} of a failed stage is unwrapped, see {@link #unwrap(Throwable)}.
+ */
+public final class FutureUtils {
+
+    private FutureUtils() {
+    }
+
+    /**
+     * Same as {@link CompletableFuture#join()}, rethrowing the failure of the future unwrapped.
+     * @param future - future
+     * @return the result of the future
+     */
+    public static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            final Throwable cause = unwrap(e);
+            throw cause == e ? e : rethrow(cause);
+        }
+    }
+
+    /**
+     * @param throwable - failure of a stage, e.g. as passed to {@code whenComplete} or {@code exceptionally}
+     * @return the cause of the failure, i.e. the throwable without its {@link CompletionException} wrappers
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Waits for the result of a future, without being interrupted.
+     * @param future - future
+     * @return the result of the future
+     */
+    public static <V> V getUninterruptibly(Future<V> future) {
+        try {
+            return Uninterruptibles.getUninterruptibly(future);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Waits at most the given time for the result of a future, without being interrupted.
+     * @param future - future
+     * @param timeout - max time to wait, the future is only checked if zero or negative
+     * @return the result of the future
+     * @throws TimeoutException - the future is not completed in time, it is left running
+     */
+    public static <V> V getUninterruptibly(Future<V> future, Duration timeout) throws TimeoutException {
+        try {
+            return Uninterruptibles.getUninterruptibly(future, Math.max(0, timeout.toNanos()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new CompletionException(cause);
+    }
+}
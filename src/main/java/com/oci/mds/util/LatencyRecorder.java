@@ -0,0 +1,104 @@
+package com.oci.mds.util;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records latencies in HDR histograms by name (e.g. "api.DbSystem.GetDbSystem", "lifecycle.DbSystem.Create"),
+ * with a microsecond resolution, and reports their throughput and percentiles.
+ * All methods are thread-safe.
+ */
+@Slf4j
+public class LatencyRecorder {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final String HEADER_FORMAT = "| %-45s %8s %7s %10s %10s %10s %10s %10s %n";
+    private static final String LINE_FORMAT = "| %-45s %8d %7d %10.2f %10.1f %10.1f %10.1f %10.1f %n";
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private final long startTimeMillis = System.currentTimeMillis();
+
+    public void record(String name, long duration, TimeUnit unit) {
+        histogram(name).recordValue(Math.max(0, unit.toMicros(duration)));
+    }
+
+    public void record(String name, Duration duration) {
+        record(name, duration.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public void recordError(String name) {
+        histogram(name);
+        errors.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * @param elapsed - duration of the run, to compute the operations per second
+     * @return a table with the count, errors, ops/sec and p50/p95/p99/max latency in milliseconds of every name
+     */
+    public String render(Duration elapsed) {
+        final double seconds = Math.max(1, elapsed.toMillis()) / 1000.0;
+        final StringBuilder table = new StringBuilder(String.format(HEADER_FORMAT,
+            "Name", "Count", "Errors", "Ops/sec", "p50 ms", "p95 ms", "p99 ms", "Max ms"));
+        new TreeMap<>(histograms).forEach((name, histogram) -> table.append(String.format(LINE_FORMAT,
+            name,
+            histogram.getTotalCount(),
+            errorCount(name),
+            histogram.getTotalCount() / seconds,
+            toMillis(histogram.getValueAtPercentile(50)),
+            toMillis(histogram.getValueAtPercentile(95)),
+            toMillis(histogram.getValueAtPercentile(99)),
+            toMillis(histogram.getMaxValue()))));
+        return table.toString();
+    }
+
+    /**
+     * Writes every histogram, tagged with its name, to an HDR histogram log, e.g. to compare two builds
+     * with the HdrHistogram tools.
+     * @param file - log file
+     */
+    public void writeLog(File file) throws FileNotFoundException {
+        final HistogramLogWriter writer = new HistogramLogWriter(file);
+        try {
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startTimeMillis);
+            writer.setBaseTime(startTimeMillis);
+            writer.outputLegend();
+            new TreeMap<>(histograms).forEach((name, histogram) -> {
+                Histogram copy = histogram.copy();
+                copy.setTag(name);
+                copy.setStartTimeStamp(startTimeMillis);
+                copy.setEndTimeStamp(System.currentTimeMillis());
+                writer.outputIntervalHistogram(copy);
+            });
+        } finally {
+            writer.close();
+        }
+        log.info("Latency histograms written to {}", file.getAbsolutePath());
+    }
+
+    private Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+    }
+
+    private long errorCount(String name) {
+        final AtomicLong count = errors.get(name);
+        return count == null ? 0 : count.get();
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.oci.mds.util;
+
+import com.codahale.metrics.ConsoleReporter;
+import com.codahale.metrics.CsvReporter;
+import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.ScheduledReporter;
+import com.codahale.metrics.jmx.JmxReporter;
+
+import com.oci.mds.configuration.MetricsReporterConfiguration;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reporters of the project metrics ("mds.*"), configured with {@code metricsReporters}.
+ * <p>
+ * Dropwizard's own reporters are started with the HTTP server, which the samples never run,
+ * so they are built and started here instead.
+ */
+@Slf4j
+public class MetricsReporters {
+
+    private static final MetricFilter FILTER = (name, metric) -> name.startsWith(ApiInvoker.METRICS_PREFIX + ".");
+    private static final String JMX_DOMAIN = "oci-mds";
+
+    private final Map<ScheduledReporter, Long> scheduledReporters = new LinkedHashMap<>();
+    private final List<JmxReporter> jmxReporters = new ArrayList<>();
+
+    public MetricsReporters(MetricRegistry metricRegistry, List<MetricsReporterConfiguration> configurations) {
+        for (MetricsReporterConfiguration configuration : configurations) {
+            switch (configuration.getType().toLowerCase()) {
+                case "console":
+                    scheduledReporters.put(ConsoleReporter.forRegistry(metricRegistry)
+                        .filter(FILTER)
+                        .convertRatesTo(TimeUnit.SECONDS)
+                        .convertDurationsTo(TimeUnit.MILLISECONDS)
+                        .build(), configuration.getPeriodInSeconds());
+                    break;
+                case "csv":
+                    File directory = new File(configuration.getDirectory());
+                    if (!directory.isDirectory() && !directory.mkdirs()) {
+                        throw new IllegalArgumentException("Can't create metrics directory " + directory);
+                    }
+                    scheduledReporters.put(CsvReporter.forRegistry(metricRegistry)
+                        .filter(FILTER)
+                        .convertRatesTo(TimeUnit.SECONDS)
+                        .convertDurationsTo(TimeUnit.MILLISECONDS)
+                        .build(directory), configuration.getPeriodInSeconds());
+                    break;
+                case "jmx":
+                    jmxReporters.add(JmxReporter.forRegistry(metricRegistry)
+                        .filter(FILTER)
+                        .inDomain(JMX_DOMAIN)
+                        .build());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown metrics reporter type: " + configuration.getType());
+            }
+        }
+    }
+
+    public void start() {
+        scheduledReporters.forEach((reporter, periodInSeconds) -> reporter.start(periodInSeconds, TimeUnit.SECONDS));
+        jmxReporters.forEach(JmxReporter::start);
+        log.debug("Started {} metrics reporter(s)", scheduledReporters.size() + jmxReporters.size());
+    }
+
+    /**
+     * Reports a last time and stops the reporters.
+     */
+    public void stop() {
+        scheduledReporters.keySet().forEach(reporter -> {
+            reporter.report();
+            reporter.stop();
+        });
+        jmxReporters.forEach(JmxReporter::stop);
+    }
+}
@@ -17,14 +17,16 @@ import java.util.List;
 public class OciUtils {
 
     private IdentityClient identityClient;
+    private ApiInvoker apiInvoker;
     private ProjectConfiguration config;
 
     private static final String AVAILABILITY_DOMAIN = "AVAILABILITY_DOMAIN";
+    private static final String CLIENT = "Identity";
 
     public OciUtils(ProjectConfiguration config) {
         this.config = config;
         this.identityClient = config.getIdentityClient();
-        this.identityClient.setEndpoint(config.getMysqlClientEndpoint());
+        this.apiInvoker = config.getApiInvoker();
     }
 
     public String getConfiguredAvailabilityDomain() {
@@ -41,7 +43,7 @@ public class OciUtils {
         val tenancyId = config.getClientTenancyId();
         log.debug("Fetching availability domains for tenancy {}", tenancyId);
         val request = ListAvailabilityDomainsRequest.builder().compartmentId(tenancyId).build();
-        val availabilityDomains = identityClient.listAvailabilityDomains(request).getItems();
+        val availabilityDomains = apiInvoker.invoke(CLIENT, "ListAvailabilityDomains", () -> identityClient.listAvailabilityDomains(request)).getItems();
         log.debug("Found availability domains: {}", availabilityDomains);
         return availabilityDomains;
     }
@@ -0,0 +1,151 @@
+package com.oci.mds.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the items of a paginated list operation following the "opc-next-page" token.
+ * <p>
+ * Pages are fetched lazily: the first one when the iteration starts, and each following page once the previous one
+ * is consumed. A caller consuming the whole list can ask for the prefetch of each following page in the background
+ * once half of the previous one is consumed, so at most two pages are held in memory. A prefetch is a list call the
+ * caller may never need, so bounded queries ({@code limit}, {@code findFirst}, {@code anyMatch}) don't prefetch.
+ * A caller stopping before the end should close the iterator, or the stream, to cancel a prefetch in flight.
+ * @param <R> - list response type
+ * @param <I> - item type
+ */
+@Slf4j
+public class PageIterator<R, I> implements Iterator<I>, AutoCloseable {
+
+    private static final int PREFETCH_THREADS = 8;
+
+    private static final ExecutorService PREFETCH_EXECUTOR = newPrefetchExecutor();
+
+    private final Function<String, R> pageFetcher;
+    private final Function<R, List<I>> itemsGetter;
+    private final Function<R, String> nextPageGetter;
+    private final boolean prefetch;
+
+    private boolean started;
+    private String nextPageToken;
+    private CompletableFuture<R> nextPage;
+    private Iterator<I> currentPage = Collections.emptyIterator();
+    private int remainingBeforePrefetch;
+
+    /**
+     * @param pageFetcher - fetches the page for the given token, null being the first page
+     * @param itemsGetter - items of a page
+     * @param nextPageGetter - token of the next page, null on the last page
+     * @param prefetch - prefetches the next page in the background, only worth it when the whole list is consumed
+     */
+    public PageIterator(Function<String, R> pageFetcher, Function<R, List<I>> itemsGetter, Function<R, String> nextPageGetter,
+                        boolean prefetch) {
+        this.pageFetcher = pageFetcher;
+        this.itemsGetter = itemsGetter;
+        this.nextPageGetter = nextPageGetter;
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * @return the items of the list operation, each page being fetched only once the previous one is consumed
+     */
+    public static <R, I> Stream<I> stream(Function<String, R> pageFetcher, Function<R, List<I>> itemsGetter, Function<R, String> nextPageGetter) {
+        return stream(pageFetcher, itemsGetter, nextPageGetter, false);
+    }
+
+    /**
+     * @param prefetch - prefetches the next page in the background, only worth it when the whole list is consumed
+     * @return the items of the list operation, closing the stream cancels a prefetch in flight
+     */
+    public static <R, I> Stream<I> stream(Function<String, R> pageFetcher, Function<R, List<I>> itemsGetter, Function<R, String> nextPageGetter,
+                                          boolean prefetch) {
+        PageIterator<R, I> iterator = new PageIterator<>(pageFetcher, itemsGetter, nextPageGetter, prefetch);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(iterator::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!currentPage.hasNext()) {
+            final R page;
+            if (!started) {
+                started = true;
+                page = pageFetcher.apply(null);
+            } else if (nextPage != null) {
+                page = FutureUtils.getUninterruptibly(nextPage);
+                nextPage = null;
+            } else if (nextPageToken != null) {
+                page = pageFetcher.apply(nextPageToken);
+            } else {
+                return false;
+            }
+
+            nextPageToken = nextPageGetter.apply(page);
+            final List<I> items = itemsGetter.apply(page);
+            currentPage = items == null ? Collections.<I>emptyIterator() : items.iterator();
+            remainingBeforePrefetch = items == null || !prefetch ? 0 : (items.size() + 1) / 2;
+        }
+        return true;
+    }
+
+    @Override
+    public I next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (remainingBeforePrefetch > 0 && --remainingBeforePrefetch == 0) {
+            prefetch();
+        }
+        return currentPage.next();
+    }
+
+    /**
+     * Stops the iteration, cancelling the prefetch of the next page if it isn't done yet.
+     */
+    @Override
+    public void close() {
+        final CompletableFuture<R> abandoned = nextPage;
+        nextPage = null;
+        nextPageToken = null;
+        currentPage = Collections.emptyIterator();
+        if (abandoned != null && !abandoned.cancel(false)) {
+            abandoned.whenComplete((page, throwable) -> {
+                if (throwable != null) {
+                    log.debug("Prefetch of an abandoned page failed: {}", throwable.getMessage());
+                }
+            });
+        }
+    }
+
+    private void prefetch() {
+        if (nextPage == null && nextPageToken != null) {
+            final String token = nextPageToken;
+            nextPage = CompletableFuture.supplyAsync(() -> pageFetcher.apply(token), PREFETCH_EXECUTOR);
+        }
+    }
+
+    private static ExecutorService newPrefetchExecutor() {
+        // The prefetches beyond the pool size are queued, the consumer waits for them anyway
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(PREFETCH_THREADS, PREFETCH_THREADS,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("page-prefetch-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
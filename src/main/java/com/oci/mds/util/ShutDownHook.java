@@ -1,5 +1,7 @@
 package com.oci.mds.util;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import com.oci.mds.configuration.ProjectConfiguration;
 import com.oci.mds.manager.DbBackupsManager;
 import com.oci.mds.manager.DbSystemManager;
@@ -12,25 +14,51 @@ import lombok.Builder;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
-import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+/**
+ * Deletes the DbSystems and Backups left behind by an interrupted execution.
+ * <p>
+ * The cleanup runs on its own bounded executor and stops at a single deadline
+ * ({@code shutdownCleanupTimeoutInSeconds}), so the JVM exits in time whatever the number of leaked resources.
+ * Every resource is handled concurrently: a DbSystem or a Backup is deleted as soon as its DbSystem leaves Updating.
+ * A summary of what was and wasn't cleaned is logged before exiting, then the resources registered with
+ * {@link #closeAfterCleanup(AutoCloseable)} are closed, e.g. the stand-in the cleanup requests are sent to.
+ */
 @Slf4j
 public class ShutDownHook extends Thread {
 
-    private static final long SLEEP_TIME_SEC = 10;
+    private static final Duration RETRY_INTERVAL = Duration.ofSeconds(5);
 
     private static Set<Managers> managersList = new HashSet<>();
 
     private ProjectConfiguration projectConfiguration;
 
+    private final Map<String, CleanupResult> results = new ConcurrentHashMap<>();
+    private final Deque<AutoCloseable> closedAfterCleanup = new ConcurrentLinkedDeque<>();
+    private Instant deadline;
+    private ExecutorService executor;
+
     public ShutDownHook(ProjectConfiguration projectConfiguration) {
         this.projectConfiguration = projectConfiguration;
     }
@@ -38,93 +66,188 @@ public class ShutDownHook extends Thread {
     @Override
     public void run() {
         log.info("** Shutdown Hook called **");
-        managersList.parallelStream().forEach(managers -> {
-            cleanUpDbSystems(managers);
-            cleanUpBackups(managers);
-        });
-    }
+        deadline = Instant.now().plusSeconds(projectConfiguration.getShutdownCleanupTimeoutInSeconds());
+        executor = Executors.newFixedThreadPool(projectConfiguration.getShutdownCleanupParallelism(),
+            new ThreadFactoryBuilder().setNameFormat("shutdown-cleanup-%d").setDaemon(true).build());
 
-    public static synchronized void addDbSystemManager(Managers managers) {
-        managersList.add(managers);
+        final List<CompletableFuture<Void>> cleanups = new ArrayList<>();
+        synchronized (ShutDownHook.class) {
+            managersList.forEach(managers -> {
+                managers.getDbSystemManager().getRegisteredIdsNotIn(Collections.singleton(DbSystem.LifecycleState.Deleted))
+                    .forEach(id -> cleanups.add(cleanUpDbSystem(managers, id)));
+                managers.getDbBackupsManager().getDbBackupIds().forEach(id -> cleanups.add(cleanUpBackup(managers, id)));
+            });
+        }
+
+        try {
+            FutureUtils.getUninterruptibly(CompletableFuture.allOf(cleanups.toArray(new CompletableFuture[0])), remaining());
+        } catch (TimeoutException e) {
+            log.warn("Cleanup deadline of {}s reached", projectConfiguration.getShutdownCleanupTimeoutInSeconds());
+        } catch (RuntimeException e) {
+            log.error("Unexpected error while cleaning up", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        logSummary();
+        closeAll();
     }
 
-    private void cleanUpDbSystems(Managers managers) {
-        final DbSystemManager dbSystemManager = managers.getDbSystemManager();
-        final DbBackupsManager dbBackupsManager = managers.getDbBackupsManager();
+    /**
+     * Registers a resource to close once the cleanup is done, the resources being closed in reverse registration
+     * order: e.g. the metrics reporters first, so they report the cleanup metrics, then the stand-in.
+     * @param closeable - resource to close
+     */
+    public void closeAfterCleanup(AutoCloseable closeable) {
+        closedAfterCleanup.push(closeable);
+    }
 
-        // Getting just the DbSystem Ids in "Updating" state and with Backup attached
-        List<String> dbSystemUpdatingIdsWithBackup = dbBackupsManager.getDbBackups().stream()
-            .map(Backup::getDbSystemId)
-            .filter(dbSystemId -> dbSystemManager.getLifecycleState(dbSystemId).equals(DbSystem.LifecycleState.Updating))
-            .collect(Collectors.toList());
+    /**
+     * Closes the registered resources without cleaning up, when the execution ends normally and the hook is removed.
+     */
+    public void closeWithoutCleanup() {
+        closeAll();
+    }
 
-        if (!dbSystemUpdatingIdsWithBackup.isEmpty()) {
-            long updatingTimeout = projectConfiguration.getUpdatingDbSystemTimeoutInSeconds();
-            dbSystemUpdatingIdsWithBackup.forEach(id ->
-                waitForAnyDifferentState(dbSystemManager, id, DbSystem.LifecycleState.Updating, updatingTimeout));
+    private void closeAll() {
+        AutoCloseable closeable;
+        while ((closeable = closedAfterCleanup.poll()) != null) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Error while closing after the cleanup", e);
+            }
         }
+    }
 
-        List<String> dbSystemIdList = getDbSystemNotDeleted(dbSystemManager);
-        if (!dbSystemIdList.isEmpty()) {
-            log.info("Cleaning up DbSystem(s): {}", dbSystemIdList);
-            dbSystemManager.deleteDbSystem(dbSystemIdList);
-        }
+    public static synchronized void addDbSystemManager(Managers managers) {
+        managersList.add(managers);
     }
 
-    private void cleanUpBackups(Managers managers) {
+    private CompletableFuture<Void> cleanUpDbSystem(Managers managers, String dbSystemId) {
         final DbSystemManager dbSystemManager = managers.getDbSystemManager();
+        final String key = "DbSystem " + dbSystemId;
+        results.put(key, CleanupResult.NOT_DONE);
+
+        return waitWhileUpdating(dbSystemManager, dbSystemId)
+            .thenAcceptAsync(dbSystem -> {
+                if (dbSystem != null && isDeleted(dbSystem.getLifecycleState())) {
+                    results.put(key, CleanupResult.ALREADY_DELETED);
+                } else {
+                    log.info("Cleaning up DbSystem: {}", dbSystemId);
+                    results.put(key, delete(() -> dbSystemManager.deleteDbSystem(dbSystemId), key));
+                }
+            }, executor)
+            .exceptionally(throwable -> recordFailure(key, throwable));
+    }
+
+    private CompletableFuture<Void> cleanUpBackup(Managers managers, String backupId) {
         final DbBackupsManager dbBackupsManager = managers.getDbBackupsManager();
+        final String key = "Backup " + backupId;
+        results.put(key, CleanupResult.NOT_DONE);
 
-        if (dbBackupsManager.getDbBackupIds().isEmpty()) {
-            return;
+        return CompletableFuture.supplyAsync(() -> dbBackupsManager.getDbBackup(backupId), executor)
+            .thenCompose(backup -> {
+                if (backup.getLifecycleState() == Backup.LifecycleState.Deleted || backup.getLifecycleState() == Backup.LifecycleState.Deleting) {
+                    results.put(key, CleanupResult.ALREADY_DELETED);
+                    return CompletableFuture.completedFuture(null);
+                }
+                // A Backup can only be deleted once done, i.e. when its DbSystem is no longer Updating
+                return waitWhileUpdating(managers.getDbSystemManager(), backup.getDbSystemId())
+                    .thenAcceptAsync(dbSystem -> {
+                        log.info("Cleaning up Backup: {}", backupId);
+                        results.put(key, delete(() -> dbBackupsManager.deleteDbBackup(backupId), key));
+                    }, executor);
+            })
+            .exceptionally(throwable -> recordFailure(key, throwable));
+    }
+
+    private Void recordFailure(String key, Throwable throwable) {
+        final Throwable cause = FutureUtils.unwrap(throwable);
+        if (cause instanceof BmcException && ((BmcException) cause).getStatusCode() == 404) {
+            results.put(key, CleanupResult.ALREADY_DELETED);
+        } else {
+            log.warn("{} could not be cleaned up: {}", key, cause.getMessage());
+            results.put(key, CleanupResult.FAILED);
         }
+        return null;
+    }
 
-        log.info("Cleaning up Backup(s): {} ", dbBackupsManager.getDbBackupIds());
+    /**
+     * Tracks the DbSystem until it leaves Updating, without blocking a thread.
+     * @return a future completed with the DbSystem, or with null if the wait failed or timed out
+     */
+    private CompletableFuture<DbSystem> waitWhileUpdating(DbSystemManager dbSystemManager, String dbSystemId) {
+        return dbSystemManager.trackWhileUpdating(Collections.singletonList(dbSystemId), remaining())
+            .get(dbSystemId)
+            .handle((dbSystem, throwable) -> dbSystem);
+    }
 
-        int maxAttempts = 30; // ~ 5min
-        boolean deleteException = true;
-        int attempt;
-        for (attempt = 1; attempt <= maxAttempts; attempt++) {
+    /**
+     * Sends a delete request, retrying while the resource is busy and the deadline is not reached.
+     */
+    private CleanupResult delete(Supplier<?> deleteRequest, String key) {
+        while (true) {
             try {
-                dbBackupsManager.deleteAllDbBackups();
-                deleteException = false;
+                deleteRequest.get();
+                return CleanupResult.DELETED;
             } catch (BmcException e) {
-                log.warn("==> Attempt [{}/{}] {}s interval {} \n", attempt, maxAttempts, SLEEP_TIME_SEC, e.getMessage());
-
-                List<String> dbSystemIdList = getDbSystemNotDeleted(dbSystemManager);
-                if (!dbSystemIdList.isEmpty()) {
-                    log.warn("==> Deleting DbSystems: {}", dbSystemIdList);
-                    dbSystemManager.deleteDbSystem(dbSystemIdList);
+                if (e.getStatusCode() == 404) {
+                    return CleanupResult.ALREADY_DELETED;
                 }
-            }
-            if (!deleteException) {
-                break;
-            } else {
-                sleepUninterruptibly(SLEEP_TIME_SEC, SECONDS);
+                if (e.getStatusCode() != 409 && e.getStatusCode() != 429 && e.getStatusCode() < 500) {
+                    log.warn("{} could not be deleted: {}", key, e.getMessage());
+                    return CleanupResult.FAILED;
+                }
+                if (remaining().compareTo(RETRY_INTERVAL) < 0) {
+                    log.warn("{} could not be deleted before the deadline: {}", key, e.getMessage());
+                    return CleanupResult.NOT_DONE;
+                }
+                log.debug("{} busy, retrying in {}s: {}", key, RETRY_INTERVAL.getSeconds(), e.getMessage());
+                sleepUninterruptibly(RETRY_INTERVAL.toMillis(), MILLISECONDS);
             }
         }
-        if (attempt == maxAttempts) {
-            log.warn("Backup(s) '{}' could not be deleted. ", dbBackupsManager.getDbBackupIds());
-        }
     }
 
-    private void waitForAnyDifferentState(DbSystemManager dbSystemManager, String dbSystemId, DbSystem.LifecycleState state, long timeout) {
-        final Instant waitStartTime = Instant.now();
-        while (ChronoUnit.SECONDS.between(waitStartTime, Instant.now()) < timeout) {
-            if (dbSystemManager.getLifecycleState(dbSystemId).equals(state)) {
-                log.info("DbSystem '{}' state wasn't changed. Waiting for any different state from {}.", dbSystemId, state);
-                sleepUninterruptibly(SLEEP_TIME_SEC, SECONDS);
-            } else {
-                break;
-            }
+    private void logSummary() {
+        final Map<CleanupResult, List<String>> byResult = new TreeMap<>(results.entrySet().stream()
+            .collect(Collectors.groupingBy(Map.Entry::getValue, Collectors.mapping(Map.Entry::getKey, Collectors.toList()))));
+
+        final StringBuilder summary = new StringBuilder("Cleanup summary:");
+        byResult.forEach((result, keys) -> {
+            summary.append(String.format("%n| %s (%d)", result.getDescription(), keys.size()));
+            keys.stream().sorted().forEach(key -> summary.append(String.format("%n|   %s", key)));
+        });
+        if (byResult.containsKey(CleanupResult.NOT_DONE) || byResult.containsKey(CleanupResult.FAILED)) {
+            log.warn(summary.toString());
+        } else {
+            log.info(summary.toString());
         }
     }
 
-    private List<String> getDbSystemNotDeleted(DbSystemManager dbSystemManager) {
-        return dbSystemManager.getDbSystems().stream()
-            .filter(dbSystem -> !dbSystem.getLifecycleState().equals(DbSystem.LifecycleState.Deleted) && !dbSystem.getLifecycleState().equals(DbSystem.LifecycleState.Deleting))
-            .map(DbSystem::getId)
-            .collect(Collectors.toList());
+    private Duration remaining() {
+        final Duration remaining = Duration.between(Instant.now(), deadline);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private static boolean isDeleted(DbSystem.LifecycleState state) {
+        return state == DbSystem.LifecycleState.Deleted || state == DbSystem.LifecycleState.Deleting;
+    }
+
+    private enum CleanupResult {
+        DELETED("Delete requested"),
+        ALREADY_DELETED("Already deleted"),
+        FAILED("Failed, not cleaned"),
+        NOT_DONE("Deadline reached, not cleaned");
+
+        private final String description;
+
+        CleanupResult(String description) {
+            this.description = description;
+        }
+
+        String getDescription() {
+            return description;
+        }
     }
 
     @Value
@@ -0,0 +1,82 @@
+package com.oci.mds.util;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the call, the callers arriving while it is
+ * in flight wait for it and get the same result or exception. Nothing is cached once the call completes.
+ * <p>
+ * A caller only joins a call sent after the time it gives, e.g. a poll following an operation must not get the result
+ * of a call sent before the operation: it runs its own call instead, which the next callers join.
+ * @param <K> - key type, e.g. a resource id
+ * @param <V> - result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong callCount = new AtomicLong();
+    private final AtomicLong sharedCount = new AtomicLong();
+
+    /**
+     * @param key - key of the call
+     * @param sentAfter - oldest send time of a call in flight the caller accepts, e.g. now minus the max age
+     * of the result
+     * @param call - call to run if none recent enough is in flight for the key
+     * @return the result of the call in flight for the key
+     */
+    public V execute(K key, Instant sentAfter, Supplier<V> call) {
+        // Taken before the call is sent, so a flight is never considered more recent than it is
+        final Flight<V> flight = new Flight<>(Instant.now());
+        Flight<V> existing = inFlight.putIfAbsent(key, flight);
+        while (existing != null) {
+            if (!existing.sentAt.isBefore(sentAfter)) {
+                sharedCount.incrementAndGet();
+                return FutureUtils.join(existing.future);
+            }
+            // Too old for this caller, the next callers join the new call instead
+            existing = inFlight.replace(key, existing, flight) ? null : inFlight.putIfAbsent(key, flight);
+        }
+
+        callCount.incrementAndGet();
+        try {
+            V value = call.get();
+            flight.future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // An Error too, or the callers waiting for the flight would block forever
+            flight.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * @return number of calls actually run
+     */
+    public long getCallCount() {
+        return callCount.get();
+    }
+
+    /**
+     * @return number of callers served by a call already in flight
+     */
+    public long getSharedCount() {
+        return sharedCount.get();
+    }
+
+    private static final class Flight<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final Instant sentAt;
+
+        private Flight(Instant sentAt) {
+            this.sentAt = sentAt;
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.oci.mds.util;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Read-through cache of the last fetched snapshot of each resource, keyed by OCID and shared by all the managers.
+ * <p>
+ * Every read states how old a snapshot it accepts: a snapshot older than {@code maxAge} is fetched again,
+ * and {@link Duration#ZERO} always fetches. Mutating calls invalidate the resource so the next read is fresh.
+ * Hits and misses are recorded in the {@code mds.cache.snapshot.*} metrics.
+ */
+public class SnapshotCache {
+
+    private static final String METRICS_NAME = name(ApiInvoker.METRICS_PREFIX, "cache", "snapshot");
+
+    private final Duration defaultMaxAge;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Meter hits;
+    private final Meter misses;
+
+    public SnapshotCache(Duration defaultMaxAge, MetricRegistry metricRegistry) {
+        this.defaultMaxAge = defaultMaxAge;
+        this.hits = metricRegistry.meter(name(METRICS_NAME, "hits"));
+        this.misses = metricRegistry.meter(name(METRICS_NAME, "misses"));
+        metricRegistry.register(name(METRICS_NAME, "hitRatio"), new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(hits.getCount(), hits.getCount() + misses.getCount());
+            }
+        });
+    }
+
+    public Duration getDefaultMaxAge() {
+        return defaultMaxAge;
+    }
+
+    /**
+     * Returns the snapshot of the resource if it is at most {@code maxAge} old, otherwise loads and keeps a new one.
+     * @param resourceId - resource id
+     * @param maxAge - max age of the snapshot
+     * @param loader - fetches the resource
+     * @return the resource snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(String resourceId, Duration maxAge, Supplier<V> loader) {
+        final Snapshot snapshot = snapshots.get(resourceId);
+        if (snapshot != null && snapshot.value != null && System.nanoTime() - snapshot.fetchedAt < maxAge.toNanos()) {
+            hits.mark();
+            return (V) snapshot.value;
+        }
+
+        misses.mark();
+        final long fetchedAt = System.nanoTime();
+        snapshots.compute(resourceId, (id, current) -> current == null
+            ? new Snapshot(null, fetchedAt, 1)
+            : new Snapshot(current.value, current.fetchedAt, current.loads + 1));
+        V value = null;
+        try {
+            value = loader.get();
+            return value;
+        } finally {
+            final Object loaded = value;
+            snapshots.computeIfPresent(resourceId, (id, current) -> {
+                // A load that started later, or a later invalidation, wins
+                final Snapshot kept = loaded == null || current.fetchedAt - fetchedAt > 0
+                    ? current
+                    : new Snapshot(loaded, fetchedAt, current.loads);
+                return kept.withoutLoad();
+            });
+        }
+    }
+
+    /**
+     * Drops the snapshot of the resource, including the one of a load still in flight.
+     * @param resourceId - resource id
+     */
+    public void invalidate(String resourceId) {
+        // The tombstone is only kept while a load started before it may still complete
+        snapshots.computeIfPresent(resourceId, (id, current) -> current.loads == 0
+            ? null
+            : new Snapshot(null, System.nanoTime(), current.loads));
+    }
+
+    public void invalidateAll() {
+        snapshots.clear();
+    }
+
+    /**
+     * Snapshot of a resource; without a value it is a tombstone, or a placeholder for the loads in flight.
+     */
+    private static final class Snapshot {
+        private final Object value;
+        private final long fetchedAt;
+        private final int loads;
+
+        private Snapshot(Object value, long fetchedAt, int loads) {
+            this.value = value;
+            this.fetchedAt = fetchedAt;
+            this.loads = loads;
+        }
+
+        /**
+         * @return the snapshot once a load is done, null (i.e. removed) if it has no value and no load is left
+         */
+        private Snapshot withoutLoad() {
+            return value == null && loads <= 1 ? null : new Snapshot(value, fetchedAt, loads - 1);
+        }
+    }
+}